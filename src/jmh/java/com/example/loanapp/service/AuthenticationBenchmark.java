@@ -0,0 +1,67 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.config.SecurityConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost: HTTP Basic runs the full provider (user lookup and BCrypt check),
+ * a bearer token is a single cache lookup among many live tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationBenchmark {
+    private static final int LIVE_TOKENS = 10_000;
+
+    private DaoAuthenticationProvider basicProvider;
+    private AccessTokenService accessTokenService;
+    private List<String> tokens;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SecurityConfig securityConfig = new SecurityConfig();
+        basicProvider = new DaoAuthenticationProvider(securityConfig.passwordEncoder());
+        basicProvider.setUserDetailsService(securityConfig.userDetailsService());
+
+        accessTokenService = new AccessTokenService(Duration.ofHours(1), LIVE_TOKENS * 2);
+        Authentication login = basicProvider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("admin", "admin123"));
+        tokens = new ArrayList<>(LIVE_TOKENS);
+        for (int i = 0; i < LIVE_TOKENS; i++) {
+            tokens.add(accessTokenService.issue(login).getAccessToken());
+        }
+    }
+
+    @Benchmark
+    public Authentication basic() {
+        return basicProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("admin", "admin123"));
+    }
+
+    @Benchmark
+    public Authentication bearerToken() {
+        next = (next + 1) % LIVE_TOKENS;
+        return accessTokenService.authenticate(tokens.get(next)).orElseThrow();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.model.LoanInstallment;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+final class BenchmarkLoans {
+    private BenchmarkLoans() {
+    }
+
+    /**
+     * Builds a detached loan whose first two installments are already paid, one of them late, so
+     * conversions and plans exercise both the paid and the unpaid branches.
+     */
+    static Loan loan(long id, int numberOfInstallments) {
+        Loan loan = new Loan();
+        loan.setId(id);
+        loan.setLoanAmount(new BigDecimal("12000.00"));
+        loan.setInterestRate(new BigDecimal("0.2"));
+        loan.setNumberOfInstallments(numberOfInstallments);
+        loan.setCreateDate(LocalDateTime.now().minusMonths(3));
+
+        BigDecimal amount = new BigDecimal("14400.00")
+                .divide(BigDecimal.valueOf(numberOfInstallments), 2, RoundingMode.HALF_UP);
+        LocalDate firstDueDate = LocalDate.now().withDayOfMonth(1).minusMonths(1);
+        List<LoanInstallment> installments = new ArrayList<>();
+        for (int i = 0; i < numberOfInstallments; i++) {
+            boolean paid = i < 2;
+            installments.add(LoanInstallment.builder()
+                    .id(id * 100 + i)
+                    .loan(loan)
+                    .amount(amount)
+                    .paidAmount(paid ? amount : BigDecimal.ZERO)
+                    .dueDate(firstDueDate.plusMonths(i))
+                    .paymentDate(paid ? firstDueDate.plusMonths(i).plusDays(i * 5L) : null)
+                    .paid(paid)
+                    .build());
+        }
+        loan.setInstallments(installments);
+        return loan;
+    }
+
+    static void resetPayments(List<LoanInstallment> installments) {
+        for (int i = 0; i < installments.size(); i++) {
+            LoanInstallment installment = installments.get(i);
+            boolean paid = i < 2;
+            installment.setPaid(paid);
+            installment.setPaidAmount(paid ? installment.getAmount() : BigDecimal.ZERO);
+            installment.setPaymentDate(paid ? installment.getDueDate() : null);
+        }
+    }
+
+    /**
+     * Returns a repository stub that looks loans up in the given map and otherwise does nothing. A
+     * plain proxy keeps mocking frameworks out of the measured code paths.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<Long, Loan> loans) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("findById") || name.equals("findWithInstallmentsById")) {
+                return Optional.ofNullable(loans.get((Long) args[0]));
+            }
+            if (name.startsWith("save")) {
+                return args[0];
+            }
+            if (method.getReturnType() == boolean.class) {
+                return false;
+            }
+            if (method.getReturnType() == long.class) {
+                return 0L;
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.repository.CustomerRepository;
+import com.example.loanapp.repository.LoanInstallmentRepository;
+import com.example.loanapp.repository.LoanRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the in-memory part of the LoanService read paths for a whole portfolio. Repositories are
+ * stubs answering from a map, so the numbers exclude database time but include the entity to DTO
+ * conversions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanServiceBenchmark {
+
+    @Param({"6", "9", "12", "24"})
+    private int installments;
+
+    @Param({"1", "1000"})
+    private int portfolioSize;
+
+    private LoanService loanService;
+    private LoanFactory loanFactory;
+    private Loan[] portfolio;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<Long, Loan> loans = new HashMap<>();
+        portfolio = new Loan[portfolioSize];
+        for (int i = 0; i < portfolioSize; i++) {
+            Loan loan = BenchmarkLoans.loan(i + 1L, installments);
+            portfolio[i] = loan;
+            loans.put(loan.getId(), loan);
+        }
+
+        AmortizationService amortizationService = new AmortizationService(List.of(new FlatAmortization(),
+                new AnnuityAmortization(), new DecliningBalanceAmortization()), 10_000);
+        loanFactory = new LoanFactory(amortizationService);
+        // Validation, balance, credit limit, idempotency and metrics collaborators are not used by the read paths
+        loanService = new LoanService(
+                BenchmarkLoans.repository(LoanRepository.class, loans),
+                BenchmarkLoans.repository(LoanInstallmentRepository.class, loans),
+                BenchmarkLoans.repository(CustomerRepository.class, loans),
+                null, null, null, null, null,
+                amortizationService,
+                null, null, loanFactory);
+    }
+
+    @Benchmark
+    public void createInstallments(Blackhole blackhole) {
+        for (Loan loan : portfolio) {
+            blackhole.consume(loanFactory.createInstallments(loan));
+        }
+    }
+
+    @Benchmark
+    public void paymentPlan(Blackhole blackhole) {
+        for (Loan loan : portfolio) {
+            blackhole.consume(loanService.getPaymentPlan(loan.getId()));
+        }
+    }
+
+    @Benchmark
+    public void installmentDtos(Blackhole blackhole) {
+        for (Loan loan : portfolio) {
+            blackhole.consume(loanService.getLoanInstallments(loan.getId()));
+        }
+    }
+
+    @Benchmark
+    public void loanHistory(Blackhole blackhole) {
+        for (Loan loan : portfolio) {
+            blackhole.consume(loanService.getLoanHistory(loan.getId()));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.DetailedPaymentResponse;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.model.LoanInstallment;
+import com.example.loanapp.repository.LoanInstallmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentServiceBenchmark {
+
+    @Param({"6", "9", "12", "24"})
+    private int installments;
+
+    private PaymentService paymentService;
+    private Loan loan;
+    private List<LoanInstallment> loanInstallments;
+    private BigDecimal paymentAmount;
+    private LocalDate paymentDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        paymentService = new PaymentService(BenchmarkLoans.repository(LoanInstallmentRepository.class, Map.of()),
+                new LoanMetrics(new SimpleMeterRegistry()));
+        loan = BenchmarkLoans.loan(1L, installments);
+        loanInstallments = loan.getInstallments();
+        paymentAmount = loanInstallments.get(0).getAmount().multiply(BigDecimal.valueOf(3));
+        paymentDate = LocalDate.now();
+    }
+
+    // processPayment mutates the installments, so every invocation starts from the same state
+    @Setup(Level.Invocation)
+    public void resetPayments() {
+        BenchmarkLoans.resetPayments(loanInstallments);
+    }
+
+    @Benchmark
+    public void calculatePayment(Blackhole blackhole) {
+        for (LoanInstallment installment : loanInstallments) {
+            blackhole.consume(paymentService.calculatePayment(installment, paymentDate));
+        }
+    }
+
+    @Benchmark
+    public DetailedPaymentResponse processPayment() {
+        return paymentService.processPayment(loan, loanInstallments, paymentAmount);
+    }
+}
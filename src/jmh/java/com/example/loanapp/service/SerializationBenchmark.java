@@ -0,0 +1,110 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.CustomerLoanDTO;
+import com.example.loanapp.dto.LoanResponseDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-response cost of rendering the list endpoints, with the default ObjectMapper and with the
+ * compact-json profile (Blackbird accessors, null fields left out). Output goes to a reused buffer,
+ * so the allocations are the serializer's own, as with a servlet output stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"default", "compact"})
+    public String mode;
+
+    @Param({"20", "100"})
+    public int rows;
+
+    private ObjectWriter customerLoansWriter;
+    private ObjectWriter searchPageWriter;
+    private List<CustomerLoanDTO> customerLoans;
+    private List<LoanResponseDTO> searchPage;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same defaults as the application: ISO dates, plus the compact-json profile settings
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("compact".equals(mode)) {
+            builder.modulesToInstall(new BlackbirdModule())
+                    .serializationInclusion(JsonInclude.Include.NON_NULL);
+        }
+        ObjectMapper objectMapper = builder.build();
+        customerLoansWriter = objectMapper.writerFor(new TypeReference<List<CustomerLoanDTO>>() { });
+        searchPageWriter = objectMapper.writerFor(new TypeReference<List<LoanResponseDTO>>() { });
+
+        LocalDateTime createDate = LocalDateTime.now().minusMonths(3);
+        customerLoans = new ArrayList<>(rows);
+        searchPage = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            BigDecimal amount = BigDecimal.valueOf(10_000L + i * 250L, 2);
+            customerLoans.add(CustomerLoanDTO.builder()
+                    .id((long) i)
+                    .loanAmount(amount)
+                    .remainingAmount(i % 4 == 0 ? BigDecimal.ZERO : amount.multiply(new BigDecimal("0.75")))
+                    .numberOfInstallments(12)
+                    .createDate(createDate.plusDays(i))
+                    .isPaid(i % 4 == 0)
+                    .build());
+            searchPage.add(LoanResponseDTO.builder()
+                    .id((long) i)
+                    .customerId(1_000L + i % 10)
+                    .customerName("Customer " + i % 10)
+                    .loanAmount(amount)
+                    .numberOfInstallments(12)
+                    .createDate(createDate.plusDays(i))
+                    .paid(i % 4 == 0)
+                    .interestRate(new BigDecimal("0.2"))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public int customerLoans() throws IOException {
+        out.reset();
+        customerLoansWriter.writeValue(out, customerLoans);
+        return out.size();
+    }
+
+    @Benchmark
+    public int searchPage() throws IOException {
+        out.reset();
+        searchPageWriter.writeValue(out, searchPage);
+        return out.size();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.loanapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+// Caching runs outside the transaction: hits skip it entirely and evictions land after commit
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    public static final String PAYMENT_PLANS = "paymentPlans";
+    public static final String EARLY_CLOSURE_QUOTES = "earlyClosureQuotes";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${loan.cache.spec}") String spec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(PAYMENT_PLANS, EARLY_CLOSURE_QUOTES);
+        caffeineCacheManager.setCacheSpecification(spec);
+        caffeineCacheManager.setAllowNullValues(false);
+        // Evictions issued inside an enclosing transaction are deferred until it commits
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.loanapp.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Boot registers every Module bean with the shared ObjectMapper. Blackbird replaces reflective
+    // getter calls with generated lambdas, which pays off on the large list responses.
+    @Bean
+    @ConditionalOnProperty(name = "loan.json.compact", havingValue = "true")
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.loanapp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableAsync
+public class SchedulingConfig {
+
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(name = "loan.scheduling.enabled", matchIfMissing = true)
+    static class ScheduledJobsConfig {
+    }
+}
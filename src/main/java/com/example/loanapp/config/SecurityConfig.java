@@ -1,7 +1,9 @@
 package com.example.loanapp.config;
 
+import com.example.loanapp.service.AccessTokenService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -11,7 +13,9 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
@@ -43,19 +47,27 @@ public class SecurityConfig {
     }
     
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AccessTokenService accessTokenService,
+                                           Environment environment) throws Exception {
+        AuthenticationEntryPoint entryPoint = (request, response, authException) -> {
+            response.setContentType("application/json");
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.getWriter().write("{\"error\": \"Unauthorized\", \"message\": \"Authentication is required to access this resource\"}");
+        };
+
         http
             .csrf((csrf) -> csrf.disable())
             .authorizeHttpRequests((authz) -> authz
                 .requestMatchers(new AntPathRequestMatcher("/h2-console/**")).permitAll()
+                // Health and metrics are only served on the management port, which listens on localhost
+                .requestMatchers(request -> Integer.valueOf(request.getLocalPort())
+                        .equals(environment.getProperty("local.management.port", Integer.class))).permitAll()
                 .anyRequest().authenticated()
             )
+            // Bearer tokens skip the BCrypt check that HTTP Basic pays on every request
+            .addFilterBefore(new BearerTokenFilter(accessTokenService, entryPoint), BasicAuthenticationFilter.class)
             .httpBasic((basic) -> basic
-                .authenticationEntryPoint((request, response, authException) -> {
-                    response.setContentType("application/json");
-                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                    response.getWriter().write("{\"error\": \"Unauthorized\", \"message\": \"Authentication is required to access this resource\"}");
-                })
+                .authenticationEntryPoint(entryPoint)
             )
             .headers((headers) -> headers
                 .frameOptions((frame) -> frame.disable())
@@ -0,0 +1,38 @@
+package com.example.loanapp.controller;
+
+import com.example.loanapp.config.BearerTokenFilter;
+import com.example.loanapp.dto.AccessTokenResponse;
+import com.example.loanapp.service.AccessTokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private final AccessTokenService accessTokenService;
+
+    @PostMapping("/token")
+    public ResponseEntity<AccessTokenResponse> issueToken(
+            Authentication authentication,
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        // Only a password login may mint tokens, otherwise a leaked token could renew itself forever
+        if (authorization.startsWith(BearerTokenFilter.BEARER_PREFIX)) {
+            throw new AccessDeniedException("Access tokens are only issued to HTTP Basic logins");
+        }
+        return ResponseEntity.ok(accessTokenService.issue(authentication));
+    }
+
+    @DeleteMapping("/token")
+    public ResponseEntity<Void> revokeToken(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        if (authorization.startsWith(BearerTokenFilter.BEARER_PREFIX)) {
+            accessTokenService.revoke(authorization.substring(BearerTokenFilter.BEARER_PREFIX.length()));
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
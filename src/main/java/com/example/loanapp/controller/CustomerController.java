@@ -1,10 +1,14 @@
 package com.example.loanapp.controller;
 
 import com.example.loanapp.dto.CreateCustomerRequest;
+import com.example.loanapp.dto.CustomerResponseDTO;
+import com.example.loanapp.dto.CustomerSummaryDTO;
+import com.example.loanapp.dto.CustomerSummaryRebuildReport;
 import com.example.loanapp.dto.RiskAnalysisDTO;
-import com.example.loanapp.model.Customer;
+import com.example.loanapp.dto.RiskRefreshReport;
 import com.example.loanapp.service.CustomerService;
-import com.example.loanapp.service.LoanService;
+import com.example.loanapp.service.CustomerSummaryService;
+import com.example.loanapp.service.PortfolioRiskService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,23 +20,42 @@ import org.springframework.web.bind.annotation.*;
 public class CustomerController {
 
     private final CustomerService customerService;
-    private final LoanService loanService;
+    private final PortfolioRiskService portfolioRiskService;
+    private final CustomerSummaryService customerSummaryService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Customer> createCustomer(@RequestBody CreateCustomerRequest request) {
+    public ResponseEntity<CustomerResponseDTO> createCustomer(@RequestBody CreateCustomerRequest request) {
         return ResponseEntity.ok(customerService.createCustomer(request));
     }
 
     @GetMapping("/{customerId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Customer> getCustomer(@PathVariable Long customerId) {
+    public ResponseEntity<CustomerResponseDTO> getCustomer(@PathVariable Long customerId) {
         return ResponseEntity.ok(customerService.getCustomer(customerId));
     }
 
     @GetMapping("/{customerId}/risk-analysis")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<RiskAnalysisDTO> analyzeCustomerRisk(@PathVariable Long customerId) {
-        return ResponseEntity.ok(loanService.analyzeCustomerRisk(customerId));
+        return ResponseEntity.ok(portfolioRiskService.getRiskAnalysis(customerId));
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/risk-analysis/refresh")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RiskRefreshReport> refreshRiskAnalysis(@RequestParam(defaultValue = "false") boolean full) {
+        return ResponseEntity.ok(portfolioRiskService.refresh(full));
+    }
+
+    @GetMapping("/{customerId}/summary")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CustomerSummaryDTO> getCustomerSummary(@PathVariable Long customerId) {
+        return ResponseEntity.ok(customerSummaryService.getSummary(customerId));
+    }
+
+    @PostMapping("/summaries/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CustomerSummaryRebuildReport> rebuildSummaries() {
+        return ResponseEntity.ok(customerSummaryService.rebuildAll());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.example.loanapp.controller;
+
+import com.example.loanapp.dto.PortfolioImportReport;
+import com.example.loanapp.service.PortfolioImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/import")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final PortfolioImportService portfolioImportService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PortfolioImportReport> importPortfolio(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(portfolioImportService.importPortfolio(input));
+        }
+    }
+}
@@ -1,22 +1,41 @@
 package com.example.loanapp.controller;
 
+import com.example.loanapp.dto.BatchLoanResponse;
 import com.example.loanapp.dto.CreateLoanRequest;
+import com.example.loanapp.dto.CreateLoanResponse;
 import com.example.loanapp.dto.PayLoanRequest;
 import com.example.loanapp.dto.PaymentResponse;
+import com.example.loanapp.dto.PaymentStatusResponse;
 import com.example.loanapp.dto.LoanInstallmentDTO;
 import com.example.loanapp.dto.CustomerLoanDTO;
 import com.example.loanapp.dto.LoanHistoryDTO;
 import com.example.loanapp.dto.PaymentPlanDTO;
 import com.example.loanapp.dto.EarlyClosureDTO;
-import com.example.loanapp.model.Loan;
+import com.example.loanapp.dto.LoanBalanceReport;
+import com.example.loanapp.dto.LoanFilterDTO;
+import com.example.loanapp.dto.LoanSearchResponse;
+import com.example.loanapp.dto.PenaltyAccrualReport;
+import com.example.loanapp.service.IdempotentPaymentService;
+import com.example.loanapp.service.LoanBalanceService;
+import com.example.loanapp.service.LoanBatchService;
+import com.example.loanapp.service.LoanExportFormat;
+import com.example.loanapp.service.LoanExportService;
 import com.example.loanapp.service.LoanService;
+import com.example.loanapp.service.PaymentJournalService;
+import com.example.loanapp.service.PenaltyAccrualService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -25,19 +44,48 @@ import java.util.List;
 public class LoanController {
 
     private final LoanService loanService;
+    private final LoanBatchService loanBatchService;
+    private final LoanBalanceService loanBalanceService;
+    private final IdempotentPaymentService idempotentPaymentService;
+    private final PenaltyAccrualService penaltyAccrualService;
+    private final LoanExportService loanExportService;
+    private final PaymentJournalService paymentJournalService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Loan> createLoan(@RequestBody CreateLoanRequest request) {
+    public ResponseEntity<CreateLoanResponse> createLoan(@RequestBody CreateLoanRequest request) {
         return ResponseEntity.ok(loanService.createLoan(request));
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BatchLoanResponse> createLoans(@RequestBody List<CreateLoanRequest> requests) {
+        return ResponseEntity.ok(loanBatchService.createLoans(requests));
+    }
+
     @GetMapping("/customer/{customerId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<CustomerLoanDTO>> getCustomerLoans(@PathVariable Long customerId) {
         return ResponseEntity.ok(loanService.getCustomerLoans(customerId));
     }
 
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LoanSearchResponse> searchLoans(LoanFilterDTO filter) {
+        return ResponseEntity.ok(loanService.searchLoans(filter));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportLoans(@RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        LoanExportFormat exportFormat = LoanExportFormat.from(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=loans." + exportFormat.getExtension());
+        loanExportService.export(exportFormat, response.getOutputStream());
+    }
+
     @GetMapping("/{loanId}/installments")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<LoanInstallmentDTO>> getLoanInstallments(@PathVariable Long loanId) {
@@ -47,13 +95,30 @@ public class LoanController {
     @PostMapping("/pay")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<PaymentResponse> payLoan(@RequestBody PayLoanRequest request) {
-        return ResponseEntity.ok(loanService.payLoan(request));
+        return ResponseEntity.ok(idempotentPaymentService.payLoan(request));
+    }
+
+    @PostMapping("/pay/async")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PaymentStatusResponse> payLoanAsync(@RequestBody PayLoanRequest request) {
+        PaymentStatusResponse accepted = paymentJournalService.accept(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/loans/payments/" + accepted.getPaymentId()))
+                .body(accepted);
+    }
+
+    @GetMapping("/payments/{paymentId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PaymentStatusResponse> getPaymentStatus(@PathVariable Long paymentId) {
+        return ResponseEntity.ok(paymentJournalService.getStatus(paymentId));
     }
 
     @GetMapping("/{loanId}/history")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<LoanHistoryDTO>> getLoanHistory(@PathVariable Long loanId) {
-        return ResponseEntity.ok(loanService.getLoanHistory(loanId));
+    public ResponseEntity<List<LoanHistoryDTO>> getLoanHistory(@PathVariable Long loanId,
+                                                               @RequestParam(required = false) Integer page,
+                                                               @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(loanService.getLoanHistoryPage(loanId, page, size));
     }
 
     @GetMapping("/{loanId}/payment-plan")
@@ -67,4 +132,23 @@ public class LoanController {
     public ResponseEntity<EarlyClosureDTO> calculateEarlyClosure(@PathVariable Long loanId) {
         return ResponseEntity.ok(loanService.calculateEarlyClosure(loanId));
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/balances/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LoanBalanceReport> verifyBalances() {
+        return ResponseEntity.ok(loanBalanceService.verifyAll());
+    }
+
+    @PostMapping("/balances/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LoanBalanceReport> rebuildBalances() {
+        return ResponseEntity.ok(loanBalanceService.rebuildAll());
+    }
+
+    @PostMapping("/penalties/accrue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PenaltyAccrualReport> accruePenalties(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(penaltyAccrualService.accrue(date == null ? LocalDate.now() : date));
+    }
+}
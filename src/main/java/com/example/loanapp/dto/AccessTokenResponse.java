@@ -0,0 +1,12 @@
+package com.example.loanapp.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AccessTokenResponse {
+    private String accessToken;
+    private String tokenType;
+    private long expiresIn;
+}
@@ -0,0 +1,13 @@
+package com.example.loanapp.dto;
+
+import lombok.Data;
+import lombok.Builder;
+
+@Data
+@Builder
+public class BatchLoanItemResult {
+    private int index;
+    private Long loanId;
+    private boolean success;
+    private String error;
+}
@@ -0,0 +1,16 @@
+package com.example.loanapp.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import java.util.List;
+
+@Data
+@Builder
+public class BatchLoanResponse {
+    private int totalRequests;
+    private int succeeded;
+    private int failed;
+    private long elapsedMillis;
+    private double loansPerSecond;
+    private List<BatchLoanItemResult> results;
+}
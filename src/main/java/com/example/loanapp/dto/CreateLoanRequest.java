@@ -1,5 +1,6 @@
 package com.example.loanapp.dto;
 
+import com.example.loanapp.model.AmortizationMethod;
 import lombok.Data;
 import java.math.BigDecimal;
 
@@ -9,4 +10,5 @@ public class CreateLoanRequest {
     private BigDecimal amount;
     private BigDecimal interestRate;
     private Integer numberOfInstallments;
+    private AmortizationMethod amortizationMethod;
 } 
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.loanapp.dto;
+
+import com.example.loanapp.model.AmortizationMethod;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class CreateLoanResponse {
+    private Long id;
+    private Long customerId;
+    private BigDecimal loanAmount;
+    private BigDecimal interestRate;
+    private Integer numberOfInstallments;
+    private AmortizationMethod amortizationMethod;
+    private LocalDateTime createDate;
+    private BigDecimal outstandingAmount;
+    private LocalDate nextDueDate;
+}
@@ -0,0 +1,16 @@
+package com.example.loanapp.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class CustomerResponseDTO {
+    private Long id;
+    private String name;
+    private String surname;
+    private BigDecimal creditLimit;
+    private BigDecimal usedCreditLimit;
+}
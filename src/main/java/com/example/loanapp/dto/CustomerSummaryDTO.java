@@ -0,0 +1,27 @@
+package com.example.loanapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSummaryDTO {
+    private Long customerId;
+    private String name;
+    private String surname;
+    private BigDecimal creditLimit;
+    private BigDecimal usedCreditLimit;
+    private Integer activeLoans;
+    private BigDecimal totalOutstanding;
+    private RiskAnalysisDTO risk;
+    private List<CustomerSummaryLoanDTO> loans;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,31 @@
+package com.example.loanapp.dto;
+
+import com.example.loanapp.model.AmortizationMethod;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSummaryLoanDTO {
+    private Long loanId;
+    private BigDecimal loanAmount;
+    private BigDecimal interestRate;
+    private Integer numberOfInstallments;
+    private AmortizationMethod amortizationMethod;
+    private LocalDateTime createDate;
+    private boolean paid;
+    private BigDecimal outstandingAmount;
+    private BigDecimal outstandingPrincipal;
+    private Integer paidInstallmentCount;
+    private LocalDate nextDueDate;
+    private List<PaymentPlanDTO> paymentPlan;
+}
@@ -0,0 +1,11 @@
+package com.example.loanapp.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CustomerSummaryRebuildReport {
+    private int rebuiltCustomers;
+    private long elapsedMillis;
+}
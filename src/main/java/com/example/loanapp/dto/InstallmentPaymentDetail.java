@@ -1,12 +1,16 @@
 package com.example.loanapp.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Builder;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class InstallmentPaymentDetail {
     private Long installmentId;
     private LocalDate dueDate;
@@ -0,0 +1,14 @@
+package com.example.loanapp.dto;
+
+import lombok.Data;
+import lombok.Builder;
+import java.util.List;
+
+@Data
+@Builder
+public class LoanBalanceReport {
+    private long checkedLoans;
+    private long inconsistentLoans;
+    private long repairedLoans;
+    private List<Long> inconsistentLoanIds;
+}
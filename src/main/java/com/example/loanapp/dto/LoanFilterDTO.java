@@ -1,17 +1,33 @@
 package com.example.loanapp.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Builder;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class LoanFilterDTO {
+    private Long customerId;
     private Integer numberOfInstallments;
     private Boolean isPaid;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     private LocalDate startDate;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     private LocalDate endDate;
     private BigDecimal minAmount;
     private BigDecimal maxAmount;
-} 
\ No newline at end of file
+
+    // Keyset cursor: the createDate and id of the last loan on the previous page
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime afterCreateDate;
+    private Long afterId;
+    private Integer size;
+}
@@ -1,5 +1,6 @@
 package com.example.loanapp.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Builder;
 import java.math.BigDecimal;
@@ -7,6 +8,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class LoanResponseDTO {
     private Long id;
     private Long customerId;
@@ -0,0 +1,16 @@
+package com.example.loanapp.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class LoanSearchResponse {
+    private List<LoanResponseDTO> loans;
+    private boolean hasMore;
+    private LocalDateTime nextCreateDate;
+    private Long nextId;
+}
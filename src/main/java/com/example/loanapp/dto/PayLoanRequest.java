@@ -7,4 +7,5 @@ import java.math.BigDecimal;
 public class PayLoanRequest {
     private Long loanId;
     private BigDecimal amount;
+    private String idempotencyKey;
 } 
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.loanapp.dto;
+
+import com.example.loanapp.model.PaymentJournalStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class PaymentStatusResponse {
+    private Long paymentId;
+    private Long loanId;
+    private BigDecimal amount;
+    private PaymentJournalStatus status;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime appliedAt;
+    private Integer paidInstallments;
+    private BigDecimal totalPaidAmount;
+    private Boolean loanFullyPaid;
+    private String failureReason;
+}
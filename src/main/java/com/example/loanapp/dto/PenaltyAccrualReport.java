@@ -0,0 +1,19 @@
+package com.example.loanapp.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class PenaltyAccrualReport {
+    private LocalDate accrualDate;
+    private long overdueInstallments;
+    private BigDecimal overdueAmount;
+    private BigDecimal accruedPenalty;
+    private int partitions;
+    private long wallTimeMillis;
+    private long rowsPerSecond;
+}
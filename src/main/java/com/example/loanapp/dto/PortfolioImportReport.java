@@ -0,0 +1,16 @@
+package com.example.loanapp.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PortfolioImportReport {
+    private long rowsRead;
+    private long customersImported;
+    private long loansImported;
+    private long rejected;
+    private String rejectsFile;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+}
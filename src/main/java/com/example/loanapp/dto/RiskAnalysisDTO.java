@@ -1,11 +1,15 @@
 package com.example.loanapp.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Builder;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class RiskAnalysisDTO {
     private Long customerId;
     private String riskLevel; // LOW, MEDIUM, HIGH
@@ -0,0 +1,13 @@
+package com.example.loanapp.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RiskRefreshReport {
+    private boolean fullRecompute;
+    private long customers;
+    private long wallTimeMillis;
+    private long customersPerSecond;
+}
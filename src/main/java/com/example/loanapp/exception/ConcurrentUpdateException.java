@@ -0,0 +1,11 @@
+package com.example.loanapp.exception;
+
+/**
+ * A request lost a race with a concurrent update of the same record. It is answered like any other
+ * validation failure, but retrying the same request may succeed.
+ */
+public class ConcurrentUpdateException extends LoanValidationException {
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+}
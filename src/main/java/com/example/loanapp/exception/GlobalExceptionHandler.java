@@ -1,16 +1,23 @@
 package com.example.loanapp.exception;
 
+import com.example.loanapp.service.LoanMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.HandlerMapping;
 
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
     
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final LoanMetrics loanMetrics;
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleAllExceptions(Exception ex) {
         logger.error("Error occurred: ", ex);
@@ -20,8 +27,10 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(LoanValidationException.class)
-    public ResponseEntity<String> handleLoanValidationException(LoanValidationException ex) {
+    public ResponseEntity<String> handleLoanValidationException(LoanValidationException ex, HttpServletRequest request) {
         logger.error("Validation error: ", ex);
+        // Tag with the route template rather than the raw path to keep the tag cardinality bounded
+        loanMetrics.recordValidationFailure((String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
         return ResponseEntity
                 .badRequest()
                 .body(ex.getMessage());
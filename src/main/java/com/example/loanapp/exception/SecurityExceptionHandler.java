@@ -1,5 +1,7 @@
 package com.example.loanapp.exception;
 
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -10,6 +12,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 @ControllerAdvice
+// Must run before the catch-all Exception handler in GlobalExceptionHandler
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class SecurityExceptionHandler {
 
     @ExceptionHandler(AccessDeniedException.class)
@@ -0,0 +1,12 @@
+package com.example.loanapp.model;
+
+/**
+ * How a loan's repayments are split into principal and interest. {@code FLAT} charges
+ * {@code loanAmount * rate} over the whole term; the other methods treat the rate as an annual
+ * nominal rate charged monthly on the outstanding principal.
+ */
+public enum AmortizationMethod {
+    FLAT,
+    ANNUITY,
+    DECLINING_BALANCE
+}
@@ -0,0 +1,53 @@
+package com.example.loanapp.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed risk analysis of a customer as of {@link #asOfDate}, maintained by the portfolio risk batch.
+ */
+@Entity
+@Table(name = "customer_risk_score")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CustomerRiskScore implements Persistable<Long> {
+    @Id
+    private Long customerId;
+
+    private String riskLevel;
+    private BigDecimal totalDebt;
+    private BigDecimal unusedCreditLimit;
+    private Integer activeLoans;
+    private Integer latePayments;
+    private Double creditScore;
+    private LocalDate asOfDate;
+    private LocalDateTime computedAt;
+
+    // Lets saveAll insert new scores without a select per row
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public Long getId() {
+        return customerId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
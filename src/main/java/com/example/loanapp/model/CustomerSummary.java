@@ -0,0 +1,50 @@
+package com.example.loanapp.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized dashboard document of a customer: profile, loans and payment plans as JSON,
+ * rewritten whenever the customer's loans change.
+ */
+@Entity
+@Table(name = "customer_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CustomerSummary implements Persistable<Long> {
+    @Id
+    private Long customerId;
+
+    @Lob
+    @Column(nullable = false)
+    private String document;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Summaries are deleted and reinserted together, so saveAll never needs a select per row
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public Long getId() {
+        return customerId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -4,19 +4,34 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "loan", indexes = {
+        @Index(name = "idx_loan_customer_paid_create_date", columnList = "customer_id, paid, create_date, id"),
+        @Index(name = "idx_loan_create_date", columnList = "create_date, id"),
+        @Index(name = "idx_loan_last_modified", columnList = "last_modified")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class Loan {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_seq")
+    @SequenceGenerator(name = "loan_seq", sequenceName = "loan_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     private Customer customer;
 
@@ -26,6 +41,22 @@ public class Loan {
     private BigDecimal interestRate;
     private boolean paid;
 
+    // Null for loans stored before amortization methods existed, which are flat
+    @Enumerated(EnumType.STRING)
+    private AmortizationMethod amortizationMethod;
+
+    // Running balances maintained by createLoan and payLoan
+    private BigDecimal outstandingPrincipal;
+    private BigDecimal outstandingAmount;
+    private Integer paidInstallmentCount;
+    private LocalDate nextDueDate;
+
+    // Change marker for incremental jobs such as the portfolio risk refresh
+    @UpdateTimestamp
+    private LocalDateTime lastModified;
+
+    // Caches the installment ids; the installments themselves come from the LoanInstallment region
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "loan", cascade = CascadeType.ALL)
     private List<LoanInstallment> installments;
 } 
\ No newline at end of file
@@ -8,9 +8,16 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import lombok.Builder;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "loan_installment")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "loan_installment", indexes = {
+        @Index(name = "idx_installment_paid_due_date", columnList = "paid, due_date"),
+        @Index(name = "idx_installment_loan_paid_due_date", columnList = "loan_id, paid, due_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +25,8 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class LoanInstallment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_installment_seq")
+    @SequenceGenerator(name = "loan_installment_seq", sequenceName = "loan_installment_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,59 @@
+package com.example.loanapp.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payment accepted by the asynchronous pay endpoint. Entries start {@link PaymentJournalStatus#PENDING}
+ * and keep the outcome once the journal applier has processed them. A payment that failed for a
+ * transient reason stays pending until {@code nextAttemptAt}.
+ */
+@Entity
+@Table(name = "payment_journal", indexes = {
+        @Index(name = "idx_payment_journal_status", columnList = "status, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class PaymentJournalEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_journal_seq")
+    @SequenceGenerator(name = "payment_journal_seq", sequenceName = "payment_journal_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "loan_id", nullable = false)
+    private Long loanId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(length = 128, unique = true)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PaymentJournalStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime acceptedAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime appliedAt;
+
+    private Integer paidInstallments;
+    private BigDecimal totalPaidAmount;
+    private Boolean loanFullyPaid;
+
+    @Column(length = 512)
+    private String failureReason;
+}
@@ -0,0 +1,7 @@
+package com.example.loanapp.model;
+
+public enum PaymentJournalStatus {
+    PENDING,
+    APPLIED,
+    REJECTED
+}
@@ -0,0 +1,50 @@
+package com.example.loanapp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Snapshot of the late penalty an overdue installment had accrued on a given day.
+ */
+@Entity
+@Table(name = "penalty_accrual", indexes = {
+        @Index(name = "idx_penalty_accrual_date_loan", columnList = "accrual_date, loan_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class PenaltyAccrual {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "penalty_accrual_seq")
+    @SequenceGenerator(name = "penalty_accrual_seq", sequenceName = "penalty_accrual_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "accrual_date", nullable = false)
+    private LocalDate accrualDate;
+
+    @Column(name = "loan_id", nullable = false)
+    private Long loanId;
+
+    @Column(nullable = false)
+    private Long installmentId;
+
+    @Column(nullable = false)
+    private BigDecimal installmentAmount;
+
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
+    private long daysOverdue;
+
+    @Column(nullable = false)
+    private BigDecimal accruedPenalty;
+}
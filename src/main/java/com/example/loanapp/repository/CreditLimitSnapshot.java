@@ -0,0 +1,11 @@
+package com.example.loanapp.repository;
+
+import java.math.BigDecimal;
+
+public interface CreditLimitSnapshot {
+    BigDecimal getCreditLimit();
+
+    BigDecimal getUsedCreditLimit();
+
+    Long getVersion();
+}
@@ -0,0 +1,6 @@
+package com.example.loanapp.repository;
+
+import java.math.BigDecimal;
+
+public record CustomerDebtSummary(Long customerId, Long activeLoans, BigDecimal totalDebt) {
+}
@@ -0,0 +1,4 @@
+package com.example.loanapp.repository;
+
+public record CustomerLatePayments(Long customerId, Long latePayments) {
+}
@@ -1,9 +1,38 @@
 package com.example.loanapp.repository;
 
 import com.example.loanapp.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
-} 
\ No newline at end of file
+    Optional<CreditLimitSnapshot> findCreditLimitSnapshotById(Long id);
+
+    // Native, and synchronized with a space that names no table: a JPQL update would clear the whole
+    // Customer cache region, while the caller evicts only the updated customer
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "customer_credit_limit"))
+    @Query(value = "update customer set used_credit_limit = :usedCreditLimit, version = version + 1 " +
+            "where id = :id and version = :version", nativeQuery = true)
+    int updateUsedCreditLimit(@Param("id") Long id,
+                              @Param("version") Long version,
+                              @Param("usedCreditLimit") BigDecimal usedCreditLimit);
+
+    @Query("select c.id from Customer c where c.id > :afterId order by c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select c.id from Customer c where not exists " +
+            "(select s.customerId from CustomerRiskScore s where s.customerId = c.id)")
+    List<Long> findIdsWithoutRiskScore();
+}
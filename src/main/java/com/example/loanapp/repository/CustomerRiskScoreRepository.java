@@ -0,0 +1,14 @@
+package com.example.loanapp.repository;
+
+import com.example.loanapp.model.CustomerRiskScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CustomerRiskScoreRepository extends JpaRepository<CustomerRiskScore, Long> {
+    @Query("select max(s.computedAt) from CustomerRiskScore s")
+    LocalDateTime findLatestComputedAt();
+}
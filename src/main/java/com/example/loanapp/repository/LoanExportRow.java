@@ -0,0 +1,12 @@
+package com.example.loanapp.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record LoanExportRow(Long loanId, Long customerId, BigDecimal loanAmount, BigDecimal interestRate,
+                            Integer numberOfInstallments, LocalDateTime createDate, boolean loanPaid,
+                            BigDecimal outstandingAmount, Long installmentId, BigDecimal installmentAmount,
+                            BigDecimal paidAmount, LocalDate dueDate, LocalDate paymentDate,
+                            boolean installmentPaid) {
+}
@@ -0,0 +1,7 @@
+package com.example.loanapp.repository;
+
+public interface LoanIdRange {
+    Long getMinLoanId();
+
+    Long getMaxLoanId();
+}
@@ -1,12 +1,59 @@
 package com.example.loanapp.repository;
 
 import com.example.loanapp.model.LoanInstallment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface LoanInstallmentRepository extends JpaRepository<LoanInstallment, Long> {
     List<LoanInstallment> findByLoanId(Long loanId);
-} 
\ No newline at end of file
+
+    List<LoanInstallment> findByLoanIdIn(Collection<Long> loanIds);
+
+    @Query("select count(i) from LoanInstallment i " +
+            "where i.loan.customer.id = :customerId and i.loan.paid = false " +
+            "and i.paid = false and i.dueDate < :date")
+    long countOverdueByCustomerId(@Param("customerId") Long customerId, @Param("date") LocalDate date);
+
+    @Query("select new com.example.loanapp.repository.CustomerLatePayments(i.loan.customer.id, count(i)) " +
+            "from LoanInstallment i where i.loan.customer.id in :customerIds and i.loan.paid = false " +
+            "and i.paid = false and i.dueDate < :date group by i.loan.customer.id")
+    List<CustomerLatePayments> countOverdueByCustomerIds(@Param("customerIds") Collection<Long> customerIds,
+                                                         @Param("date") LocalDate date);
+
+    @Query("select distinct i.loan.customer.id from LoanInstallment i where i.paid = false " +
+            "and i.loan.paid = false and i.dueDate >= :from and i.dueDate < :to")
+    List<Long> findCustomerIdsWithInstallmentsFallingDue(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select min(i.loan.id) as minLoanId, max(i.loan.id) as maxLoanId from LoanInstallment i " +
+            "where i.paid = false and i.dueDate < :date")
+    LoanIdRange findOverdueLoanIdRange(@Param("date") LocalDate date);
+
+    @Query("select new com.example.loanapp.repository.OverdueInstallment(i.id, i.loan.id, i.amount, i.dueDate) " +
+            "from LoanInstallment i where i.paid = false and i.dueDate < :date " +
+            "and i.loan.id between :fromLoanId and :toLoanId and i.id > :afterId order by i.id")
+    List<OverdueInstallment> findOverdueInLoanRange(@Param("date") LocalDate date,
+                                                    @Param("fromLoanId") Long fromLoanId,
+                                                    @Param("toLoanId") Long toLoanId,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    // Forward-only cursor of scalar rows: nothing enters the persistence context
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.loanapp.repository.LoanExportRow(l.id, l.customer.id, l.loanAmount, " +
+            "l.interestRate, l.numberOfInstallments, l.createDate, l.paid, l.outstandingAmount, " +
+            "i.id, i.amount, i.paidAmount, i.dueDate, i.paymentDate, i.paid) " +
+            "from LoanInstallment i join i.loan l order by l.id, i.id")
+    Stream<LoanExportRow> streamForExport();
+}
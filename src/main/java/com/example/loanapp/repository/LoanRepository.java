@@ -1,12 +1,47 @@
 package com.example.loanapp.repository;
 
+import com.example.loanapp.dto.CustomerLoanDTO;
 import com.example.loanapp.model.Loan;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface LoanRepository extends JpaRepository<Loan, Long> {
+public interface LoanRepository extends JpaRepository<Loan, Long>, LoanSearchRepository {
     List<Loan> findByCustomerId(Long customerId);
-} 
\ No newline at end of file
+
+    @EntityGraph(attributePaths = "installments")
+    Optional<Loan> findWithInstallmentsById(Long id);
+
+    List<Loan> findByCustomerIdAndPaidFalse(Long customerId);
+
+    @EntityGraph(attributePaths = "installments")
+    List<Loan> findWithInstallmentsByCustomerIdInOrderByIdAsc(Collection<Long> customerIds);
+
+    List<Loan> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    long countByPaidInstallmentCountIsNull();
+
+    List<Loan> findByPaidInstallmentCountIsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select new com.example.loanapp.dto.CustomerLoanDTO(" +
+            "l.id, l.loanAmount, l.outstandingAmount, l.numberOfInstallments, l.createDate, l.paid) " +
+            "from Loan l where l.customer.id = :customerId order by l.id")
+    List<CustomerLoanDTO> findCustomerLoanSummaries(@Param("customerId") Long customerId);
+
+    @Query("select new com.example.loanapp.repository.CustomerDebtSummary(" +
+            "l.customer.id, count(l), sum(l.outstandingAmount)) " +
+            "from Loan l where l.paid = false and l.customer.id in :customerIds group by l.customer.id")
+    List<CustomerDebtSummary> summarizeActiveLoans(@Param("customerIds") Collection<Long> customerIds);
+
+    @Query("select distinct l.customer.id from Loan l where l.lastModified >= :since")
+    List<Long> findCustomerIdsWithLoansModifiedSince(@Param("since") LocalDateTime since);
+}
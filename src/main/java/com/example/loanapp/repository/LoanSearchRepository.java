@@ -0,0 +1,14 @@
+package com.example.loanapp.repository;
+
+import com.example.loanapp.dto.LoanFilterDTO;
+import com.example.loanapp.dto.LoanResponseDTO;
+
+import java.util.List;
+
+public interface LoanSearchRepository {
+    /**
+     * Returns at most {@code limit} loans matching the filter, newest first, starting after the
+     * keyset cursor in the filter when one is given.
+     */
+    List<LoanResponseDTO> searchLoans(LoanFilterDTO filter, int limit);
+}
@@ -0,0 +1,81 @@
+package com.example.loanapp.repository;
+
+import com.example.loanapp.dto.LoanFilterDTO;
+import com.example.loanapp.dto.LoanResponseDTO;
+import com.example.loanapp.model.Customer;
+import com.example.loanapp.model.Loan;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seek pagination on (createDate, id): each page continues strictly after the last row of the
+ * previous one instead of skipping an offset, so a page costs the same at any depth as long as
+ * an index covers the filter columns followed by create_date.
+ */
+public class LoanSearchRepositoryImpl implements LoanSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<LoanResponseDTO> searchLoans(LoanFilterDTO filter, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LoanResponseDTO> query = cb.createQuery(LoanResponseDTO.class);
+        Root<Loan> loan = query.from(Loan.class);
+        Join<Loan, Customer> customer = loan.join("customer");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getCustomerId() != null) {
+            predicates.add(cb.equal(customer.get("id"), filter.getCustomerId()));
+        }
+        if (filter.getIsPaid() != null) {
+            predicates.add(cb.equal(loan.get("paid"), filter.getIsPaid()));
+        }
+        if (filter.getNumberOfInstallments() != null) {
+            predicates.add(cb.equal(loan.get("numberOfInstallments"), filter.getNumberOfInstallments()));
+        }
+        if (filter.getStartDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(loan.get("createDate"), filter.getStartDate().atStartOfDay()));
+        }
+        if (filter.getEndDate() != null) {
+            predicates.add(cb.lessThan(loan.get("createDate"), filter.getEndDate().plusDays(1).atStartOfDay()));
+        }
+        if (filter.getMinAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(loan.get("loanAmount"), filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(loan.get("loanAmount"), filter.getMaxAmount()));
+        }
+        if (filter.getAfterCreateDate() != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(loan.get("createDate"), filter.getAfterCreateDate()),
+                    cb.and(
+                            cb.equal(loan.get("createDate"), filter.getAfterCreateDate()),
+                            cb.lessThan(loan.get("id"), filter.getAfterId()))));
+        }
+
+        query.select(cb.construct(LoanResponseDTO.class,
+                        loan.get("id"),
+                        customer.get("id"),
+                        cb.concat(cb.concat(customer.get("name"), " "), customer.get("surname")),
+                        loan.get("loanAmount"),
+                        loan.get("numberOfInstallments"),
+                        loan.get("createDate"),
+                        loan.get("paid"),
+                        loan.get("interestRate")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(loan.get("createDate")), cb.desc(loan.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.loanapp.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record OverdueInstallment(Long id, Long loanId, BigDecimal amount, LocalDate dueDate) {
+}
@@ -0,0 +1,18 @@
+package com.example.loanapp.repository;
+
+import com.example.loanapp.model.PaymentIdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PaymentIdempotencyRecordRepository extends JpaRepository<PaymentIdempotencyRecord, String> {
+
+    @Modifying
+    @Query("delete from PaymentIdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteByCreatedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,24 @@
+package com.example.loanapp.repository;
+
+import com.example.loanapp.model.PaymentJournalEntry;
+import com.example.loanapp.model.PaymentJournalStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentJournalRepository extends JpaRepository<PaymentJournalEntry, Long> {
+
+    List<PaymentJournalEntry> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(PaymentJournalStatus status,
+                                                                                     LocalDateTime now,
+                                                                                     Pageable pageable);
+
+    List<PaymentJournalEntry> findByIdInAndStatusOrderByIdAsc(Collection<Long> ids, PaymentJournalStatus status);
+
+    Optional<PaymentJournalEntry> findByIdempotencyKey(String idempotencyKey);
+}
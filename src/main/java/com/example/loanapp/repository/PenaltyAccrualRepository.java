@@ -0,0 +1,27 @@
+package com.example.loanapp.repository;
+
+import com.example.loanapp.model.PenaltyAccrual;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PenaltyAccrualRepository extends JpaRepository<PenaltyAccrual, Long> {
+    List<PenaltyAccrual> findByLoanIdAndAccrualDate(Long loanId, LocalDate accrualDate);
+
+    @Query("select min(p.loanId) as minLoanId, max(p.loanId) as maxLoanId from PenaltyAccrual p " +
+            "where p.accrualDate = :accrualDate")
+    LoanIdRange findLoanIdRangeByAccrualDate(@Param("accrualDate") LocalDate accrualDate);
+
+    @Modifying
+    @Query("delete from PenaltyAccrual p where p.accrualDate = :accrualDate " +
+            "and p.loanId between :fromLoanId and :toLoanId")
+    int deleteByAccrualDateAndLoanIdBetween(@Param("accrualDate") LocalDate accrualDate,
+                                            @Param("fromLoanId") Long fromLoanId,
+                                            @Param("toLoanId") Long toLoanId);
+}
@@ -0,0 +1,62 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.AccessTokenResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Opaque bearer tokens held in memory. A token is issued once after a regular (BCrypt-checked) login
+ * and later requests authenticate with a single cache lookup. Tokens are node-local and are lost on
+ * restart, after which clients simply log in again.
+ */
+@Service
+public class AccessTokenService {
+    private static final String TOKEN_TYPE = "Bearer";
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Duration tokenTtl;
+    private final Cache<String, Authentication> tokens;
+
+    public AccessTokenService(@Value("${loan.auth.token-ttl:PT30M}") Duration tokenTtl,
+                              @Value("${loan.auth.token-cache-size:100000}") long cacheSize) {
+        this.tokenTtl = tokenTtl;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(tokenTtl)
+                .build();
+    }
+
+    public AccessTokenResponse issue(Authentication authentication) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        // Keep only the name and authorities, never the credentials
+        tokens.put(token, UsernamePasswordAuthenticationToken.authenticated(
+                authentication.getName(), null, authentication.getAuthorities()));
+
+        return AccessTokenResponse.builder()
+                .accessToken(token)
+                .tokenType(TOKEN_TYPE)
+                .expiresIn(tokenTtl.toSeconds())
+                .build();
+    }
+
+    public Optional<Authentication> authenticate(String token) {
+        return Optional.ofNullable(tokens.getIfPresent(token));
+    }
+
+    public void revoke(String token) {
+        tokens.invalidate(token);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.util.MoneyMath;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable repayment schedule in minor units. Built once per loan terms and shared by installment
+ * creation, the payment plan, running balances and early closure.
+ */
+public final class AmortizationSchedule {
+    private final long[] amounts;
+    private final long[] principals;
+    private final long[] interests;
+    private final long[] remainingPrincipals;
+    private final long[] remainingInterests;
+
+    AmortizationSchedule(long principalMinor, long[] amounts, long[] principals) {
+        int n = amounts.length;
+        this.amounts = amounts;
+        this.principals = principals;
+        this.interests = new long[n];
+        this.remainingPrincipals = new long[n];
+        this.remainingInterests = new long[n + 1];
+
+        long remaining = principalMinor;
+        for (int i = 0; i < n; i++) {
+            interests[i] = amounts[i] - principals[i];
+            remainingPrincipals[i] = remaining;
+            remaining -= principals[i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            remainingInterests[i] = remainingInterests[i + 1] + interests[i];
+        }
+    }
+
+    public int size() {
+        return amounts.length;
+    }
+
+    public long amount(int installment) {
+        return amounts[installment];
+    }
+
+    public BigDecimal amountDecimal(int installment) {
+        return MoneyMath.toDecimal(amounts[installment]);
+    }
+
+    public long principal(int installment) {
+        return principals[installment];
+    }
+
+    public long interest(int installment) {
+        return interests[installment];
+    }
+
+    /**
+     * Principal still owed before {@code installment} is paid.
+     */
+    public long remainingPrincipal(int installment) {
+        return remainingPrincipals[installment];
+    }
+
+    /**
+     * Principal still owed once the first {@code paidCount} installments are paid.
+     */
+    public long outstandingPrincipal(int paidCount) {
+        return paidCount >= size() ? 0 : remainingPrincipals[paidCount];
+    }
+
+    /**
+     * Interest carried by the installments after the first {@code paidCount}.
+     */
+    public long outstandingInterest(int paidCount) {
+        return remainingInterests[Math.min(paidCount, size())];
+    }
+}
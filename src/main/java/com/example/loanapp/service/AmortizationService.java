@@ -0,0 +1,81 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.PaymentPlanDTO;
+import com.example.loanapp.model.AmortizationMethod;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.model.LoanInstallment;
+import com.example.loanapp.util.MoneyMath;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves a loan's {@link AmortizationStrategy} and shares the resulting schedule between every loan
+ * with the same terms. Loans stored before amortization methods existed are flat.
+ */
+@Service
+public class AmortizationService {
+    private final Map<AmortizationMethod, AmortizationStrategy> strategies = new EnumMap<>(AmortizationMethod.class);
+    private final Cache<ScheduleKey, AmortizationSchedule> schedules;
+
+    public AmortizationService(List<AmortizationStrategy> strategies,
+                               @Value("${loan.amortization.schedule-cache-size:10000}") long cacheSize) {
+        for (AmortizationStrategy strategy : strategies) {
+            this.strategies.put(strategy.method(), strategy);
+        }
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    public AmortizationSchedule schedule(Loan loan) {
+        return schedule(methodOf(loan), loan.getLoanAmount(), loan.getInterestRate(), loan.getNumberOfInstallments());
+    }
+
+    public AmortizationSchedule schedule(AmortizationMethod method, BigDecimal loanAmount, BigDecimal interestRate,
+                                         int numberOfInstallments) {
+        ScheduleKey key = new ScheduleKey(method, loanAmount.stripTrailingZeros(), interestRate.stripTrailingZeros(),
+                numberOfInstallments);
+        return schedules.get(key, k -> strategies.get(method).schedule(loanAmount, interestRate, numberOfInstallments));
+    }
+
+    /**
+     * Payment plan of {@code loan}, pairing its installments in due date order with the schedule.
+     */
+    public List<PaymentPlanDTO> paymentPlan(Loan loan) {
+        AmortizationSchedule schedule = schedule(loan);
+        List<LoanInstallment> installments = new ArrayList<>(loan.getInstallments());
+        installments.sort(Comparator.comparing(LoanInstallment::getDueDate));
+
+        List<PaymentPlanDTO> plan = new ArrayList<>(installments.size());
+        for (LoanInstallment installment : installments) {
+            int index = plan.size();
+            plan.add(PaymentPlanDTO.builder()
+                    .installmentNumber(index + 1)
+                    .dueDate(installment.getDueDate())
+                    .installmentAmount(schedule.amountDecimal(index))
+                    .principalAmount(MoneyMath.toDecimal(schedule.principal(index)))
+                    .interestAmount(MoneyMath.toDecimal(schedule.interest(index)))
+                    .remainingPrincipal(MoneyMath.toDecimal(schedule.remainingPrincipal(index)))
+                    .isPaid(installment.isPaid())
+                    .build());
+        }
+        return plan;
+    }
+
+    public static AmortizationMethod methodOf(Loan loan) {
+        return loan.getAmortizationMethod() == null ? AmortizationMethod.FLAT : loan.getAmortizationMethod();
+    }
+
+    private record ScheduleKey(AmortizationMethod method, BigDecimal loanAmount, BigDecimal interestRate,
+                               int numberOfInstallments) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.model.AmortizationMethod;
+
+import java.math.BigDecimal;
+
+/**
+ * Splits a loan into its installments. Implementations keep whatever depends only on the rate and
+ * tenor in a factor table, so building a schedule is a single pass over the installments.
+ */
+public interface AmortizationStrategy {
+
+    AmortizationMethod method();
+
+    AmortizationSchedule schedule(BigDecimal loanAmount, BigDecimal interestRate, int numberOfInstallments);
+}
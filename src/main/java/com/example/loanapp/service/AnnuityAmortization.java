@@ -0,0 +1,66 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.model.AmortizationMethod;
+import com.example.loanapp.util.MoneyMath;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * French amortization: equal installments {@code P * r / (1 - (1 + r)^-n)} with interest charged on the
+ * outstanding principal, so the principal part grows over the term. The last installment absorbs the
+ * rounding so the principal parts add up to the loan amount.
+ */
+@Component
+public class AnnuityAmortization implements AmortizationStrategy {
+    // The annuity factor depends only on the rate and tenor; pow runs once per pair
+    private final Cache<FactorKey, BigDecimal> factors = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .build();
+
+    @Override
+    public AmortizationMethod method() {
+        return AmortizationMethod.ANNUITY;
+    }
+
+    @Override
+    public AmortizationSchedule schedule(BigDecimal loanAmount, BigDecimal interestRate, int numberOfInstallments) {
+        PeriodicRate rate = PeriodicRate.of(interestRate);
+        BigDecimal factor = factors.get(new FactorKey(rate.annualRate(), numberOfInstallments),
+                key -> annuityFactor(rate.value(), key.numberOfInstallments()));
+
+        long principal = MoneyMath.toMinorRounded(loanAmount);
+        long installment = MoneyMath.toMinorRounded(MoneyMath.toDecimal(principal).multiply(factor)
+                .setScale(MoneyMath.SCALE, RoundingMode.HALF_UP));
+
+        long[] amounts = new long[numberOfInstallments];
+        long[] principals = new long[numberOfInstallments];
+        long remaining = principal;
+        for (int i = 0; i < numberOfInstallments; i++) {
+            long interest = rate.interestOn(remaining);
+            long principalPart = i == numberOfInstallments - 1
+                    ? remaining
+                    : Math.min(installment - interest, remaining);
+            principals[i] = principalPart;
+            amounts[i] = principalPart + interest;
+            remaining -= principalPart;
+        }
+        return new AmortizationSchedule(principal, amounts, principals);
+    }
+
+    private static BigDecimal annuityFactor(BigDecimal periodicRate, int numberOfInstallments) {
+        if (periodicRate.signum() == 0) {
+            return BigDecimal.ONE.divide(BigDecimal.valueOf(numberOfInstallments), MathContext.DECIMAL128);
+        }
+        BigDecimal growth = BigDecimal.ONE.add(periodicRate).pow(numberOfInstallments, MathContext.DECIMAL128);
+        return periodicRate.multiply(growth, MathContext.DECIMAL128)
+                .divide(growth.subtract(BigDecimal.ONE), MathContext.DECIMAL128);
+    }
+
+    private record FactorKey(BigDecimal rate, int numberOfInstallments) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.exception.ConcurrentUpdateException;
+import com.example.loanapp.exception.LoanValidationException;
+import com.example.loanapp.model.Customer;
+import com.example.loanapp.repository.CreditLimitSnapshot;
+import com.example.loanapp.repository.CustomerRepository;
+import com.example.loanapp.util.MoneyMath;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class CreditLimitService {
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final CustomerRepository customerRepository;
+    private final CreditReservationLedger ledger;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void reserve(Long customerId, BigDecimal amount) {
+        long amountMinor = MoneyMath.toMinorRounded(amount);
+        if (!ledger.tryReserve(customerId, amountMinor)) {
+            throw new LoanValidationException("Insufficient credit limit");
+        }
+
+        boolean reserved = false;
+        try {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                CreditLimitSnapshot snapshot = findSnapshot(customerId);
+                refreshLedger(customerId, snapshot);
+                BigDecimal usedCreditLimit = snapshot.getUsedCreditLimit().add(amount);
+                if (usedCreditLimit.compareTo(snapshot.getCreditLimit()) > 0) {
+                    throw new LoanValidationException("Insufficient credit limit");
+                }
+                if (customerRepository.updateUsedCreditLimit(customerId, snapshot.getVersion(), usedCreditLimit) == 1) {
+                    reserved = true;
+                    long version = snapshot.getVersion() + 1;
+                    evictCustomer(customerId);
+                    afterCompletion(committed -> {
+                        if (committed) {
+                            evictCustomer(customerId);
+                            ledger.commit(customerId, amountMinor, version);
+                        } else {
+                            ledger.cancel(customerId, amountMinor);
+                        }
+                    });
+                    return;
+                }
+            }
+            throw new ConcurrentUpdateException("Credit limit is being updated concurrently, please retry");
+        } finally {
+            if (!reserved) {
+                ledger.cancel(customerId, amountMinor);
+            }
+        }
+    }
+
+    public void release(Long customerId, BigDecimal amount) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            CreditLimitSnapshot snapshot = findSnapshot(customerId);
+            BigDecimal usedCreditLimit = snapshot.getUsedCreditLimit().subtract(amount);
+            if (customerRepository.updateUsedCreditLimit(customerId, snapshot.getVersion(), usedCreditLimit) == 1) {
+                long version = snapshot.getVersion() + 1;
+                evictCustomer(customerId);
+                afterCompletion(committed -> {
+                    if (committed) {
+                        evictCustomer(customerId);
+                        ledger.release(customerId, MoneyMath.toMinorRounded(amount), version);
+                    }
+                });
+                return;
+            }
+        }
+        throw new ConcurrentUpdateException("Credit limit is being updated concurrently, please retry");
+    }
+
+    private CreditLimitSnapshot findSnapshot(Long customerId) {
+        return customerRepository.findCreditLimitSnapshotById(customerId)
+                .orElseThrow(() -> new LoanValidationException("Customer not found"));
+    }
+
+    // The update bypasses the persistence context, so the cached customer is dropped by hand: once so the
+    // rest of this transaction reads its own update, and again after commit in case a concurrent reader
+    // cached the old row in between
+    private void evictCustomer(Long customerId) {
+        entityManagerFactory.getCache().evict(Customer.class, customerId);
+    }
+
+    private void refreshLedger(Long customerId, CreditLimitSnapshot snapshot) {
+        ledger.refresh(customerId,
+                MoneyMath.toMinorRounded(snapshot.getCreditLimit()),
+                MoneyMath.toMinorRounded(snapshot.getUsedCreditLimit()),
+                snapshot.getVersion());
+    }
+
+    private void afterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.loanapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Node-local view of customer credit limits, striped so that unrelated customers never contend.
+ * It only rejects requests that cannot fit into the last known limit next to the reservations
+ * still in flight; the versioned database update in {@link CreditLimitService} remains the source
+ * of truth. Changes are applied only in customer version order, any gap makes the entry unknown
+ * again so the ledger can fall behind but never overstate the used limit.
+ */
+@Component
+public class CreditReservationLedger {
+    private static final int MAX_ENTRIES_PER_STRIPE = 4096;
+
+    private final Stripe[] stripes;
+
+    public CreditReservationLedger(@Value("${loan.credit-limit.ledger-stripes:64}") int stripeCount) {
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public boolean tryReserve(Long customerId, long amount) {
+        Stripe stripe = stripeFor(customerId);
+        synchronized (stripe) {
+            Entry entry = stripe.entryFor(customerId);
+            if (entry.known && entry.usedCreditLimit + entry.pending + amount > entry.creditLimit) {
+                return false;
+            }
+            entry.pending += amount;
+            return true;
+        }
+    }
+
+    public void cancel(Long customerId, long amount) {
+        Stripe stripe = stripeFor(customerId);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(customerId);
+            if (entry != null) {
+                entry.pending -= amount;
+            }
+        }
+    }
+
+    public void commit(Long customerId, long amount, long version) {
+        Stripe stripe = stripeFor(customerId);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(customerId);
+            if (entry != null) {
+                entry.pending -= amount;
+                entry.apply(amount, version);
+            }
+        }
+    }
+
+    public void release(Long customerId, long amount, long version) {
+        Stripe stripe = stripeFor(customerId);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(customerId);
+            if (entry != null) {
+                entry.apply(-amount, version);
+            }
+        }
+    }
+
+    public void refresh(Long customerId, long creditLimit, long usedCreditLimit, long version) {
+        Stripe stripe = stripeFor(customerId);
+        synchronized (stripe) {
+            Entry entry = stripe.entryFor(customerId);
+            if (!entry.known || version >= entry.version) {
+                entry.creditLimit = creditLimit;
+                entry.usedCreditLimit = usedCreditLimit;
+                entry.version = version;
+                entry.known = true;
+            }
+        }
+    }
+
+    private Stripe stripeFor(Long customerId) {
+        return stripes[Math.floorMod(Long.hashCode(customerId), stripes.length)];
+    }
+
+    private static class Stripe {
+        private final Map<Long, Entry> entries = new HashMap<>();
+
+        Entry entryFor(Long customerId) {
+            Entry entry = entries.get(customerId);
+            if (entry == null) {
+                if (entries.size() >= MAX_ENTRIES_PER_STRIPE) {
+                    entries.values().removeIf(e -> e.pending == 0);
+                }
+                entry = new Entry();
+                entries.put(customerId, entry);
+            }
+            return entry;
+        }
+    }
+
+    private static class Entry {
+        private long creditLimit;
+        private long usedCreditLimit;
+        private long version;
+        private long pending;
+        private boolean known;
+
+        void apply(long delta, long newVersion) {
+            if (known && newVersion == version + 1) {
+                usedCreditLimit += delta;
+                version = newVersion;
+            } else {
+                known = false;
+            }
+        }
+    }
+}
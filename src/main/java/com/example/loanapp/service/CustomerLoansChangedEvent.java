@@ -0,0 +1,7 @@
+package com.example.loanapp.service;
+
+/**
+ * Published when a transaction creates or pays loans of a customer; listeners see it after commit.
+ */
+public record CustomerLoansChangedEvent(Long customerId) {
+}
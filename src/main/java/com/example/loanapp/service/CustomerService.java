@@ -1,6 +1,8 @@
 package com.example.loanapp.service;
 
 import com.example.loanapp.dto.CreateCustomerRequest;
+import com.example.loanapp.dto.CustomerResponseDTO;
+import com.example.loanapp.exception.LoanValidationException;
 import com.example.loanapp.model.Customer;
 import com.example.loanapp.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
@@ -11,17 +13,28 @@ import org.springframework.stereotype.Service;
 public class CustomerService {
     private final CustomerRepository customerRepository;
 
-    public Customer createCustomer(CreateCustomerRequest request) {
+    public CustomerResponseDTO createCustomer(CreateCustomerRequest request) {
         Customer customer = new Customer();
         customer.setName(request.getName());
         customer.setSurname(request.getSurname());
         customer.setCreditLimit(request.getCreditLimit());
         customer.setUsedCreditLimit(request.getUsedCreditLimit());
-        return customerRepository.save(customer);
+        return toResponse(customerRepository.save(customer));
     }
 
-    public Customer getCustomer(Long customerId) {
+    public CustomerResponseDTO getCustomer(Long customerId) {
         return customerRepository.findById(customerId)
-                .orElseThrow(() -> new RuntimeException("Customer not found"));
+                .map(this::toResponse)
+                .orElseThrow(() -> new LoanValidationException("Customer not found"));
     }
-} 
\ No newline at end of file
+
+    private CustomerResponseDTO toResponse(Customer customer) {
+        return CustomerResponseDTO.builder()
+                .id(customer.getId())
+                .name(customer.getName())
+                .surname(customer.getSurname())
+                .creditLimit(customer.getCreditLimit())
+                .usedCreditLimit(customer.getUsedCreditLimit())
+                .build();
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.CustomerSummaryDTO;
+import com.example.loanapp.dto.CustomerSummaryLoanDTO;
+import com.example.loanapp.dto.CustomerSummaryRebuildReport;
+import com.example.loanapp.exception.LoanValidationException;
+import com.example.loanapp.model.Customer;
+import com.example.loanapp.model.CustomerSummary;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.model.LoanInstallment;
+import com.example.loanapp.repository.CustomerRepository;
+import com.example.loanapp.repository.CustomerSummaryRepository;
+import com.example.loanapp.repository.LoanRepository;
+import com.example.loanapp.util.MoneyMath;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Read model behind the customer dashboard. Every customer has one JSON document with the profile,
+ * loans, payment plans and risk analysis, so the dashboard is served by a single primary key lookup
+ * instead of a transaction per widget. Documents are rebuilt asynchronously after commit whenever a
+ * transaction publishes {@link CustomerLoansChangedEvent}, and built on first read for customers
+ * without one. Every write holds the customer's refresh lock, so an older document never replaces a
+ * newer one.
+ * <p>
+ * The stored risk analysis is replaced by the portfolio risk score when that score is newer than the
+ * document, since late payments change as installments fall due without any loan being touched. An
+ * older score would show the debt from before the document's last loan change.
+ */
+@Service
+public class CustomerSummaryService {
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSummaryService.class);
+    private static final int REFRESH_LOCKS = 64;
+
+    private final CustomerSummaryRepository summaryRepository;
+    private final CustomerRepository customerRepository;
+    private final LoanRepository loanRepository;
+    private final AmortizationService amortizationService;
+    private final PortfolioRiskService portfolioRiskService;
+    private final LoanMetrics loanMetrics;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate requiresNew;
+    private final int pageSize;
+    private final ReentrantLock[] refreshLocks = new ReentrantLock[REFRESH_LOCKS];
+
+    public CustomerSummaryService(CustomerSummaryRepository summaryRepository,
+                                  CustomerRepository customerRepository,
+                                  LoanRepository loanRepository,
+                                  AmortizationService amortizationService,
+                                  PortfolioRiskService portfolioRiskService,
+                                  LoanMetrics loanMetrics,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${loan.summary.page-size:500}") int pageSize) {
+        this.summaryRepository = summaryRepository;
+        this.customerRepository = customerRepository;
+        this.loanRepository = loanRepository;
+        this.amortizationService = amortizationService;
+        this.portfolioRiskService = portfolioRiskService;
+        this.loanMetrics = loanMetrics;
+        this.objectMapper = objectMapper;
+        // Refreshes run on their own thread after the publishing transaction committed, so they need
+        // a transaction of their own
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.pageSize = pageSize;
+        for (int i = 0; i < REFRESH_LOCKS; i++) {
+            refreshLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public CustomerSummaryDTO getSummary(Long customerId) {
+        return loanMetrics.record("customer_summary", operation -> {
+            CustomerSummaryDTO summary = summaryRepository.findById(customerId)
+                    .map(stored -> readDocument(stored.getDocument()))
+                    .orElseGet(() -> refresh(customerId));
+            portfolioRiskService.findRiskAnalysisComputedAfter(customerId, summary.getUpdatedAt())
+                    .ifPresent(summary::setRisk);
+            return summary;
+        });
+    }
+
+    // Off the publishing thread: the payment answers without the rebuild, and a refresh never waits
+    // for a second pooled connection while the publisher still holds its first
+    @Async
+    @TransactionalEventListener
+    public void onCustomerLoansChanged(CustomerLoansChangedEvent event) {
+        Long customerId = event.customerId();
+        try {
+            refresh(customerId);
+        } catch (RuntimeException e) {
+            // The change is committed; drop the stale document so the next read rebuilds it
+            logger.warn("Could not refresh the summary of customer {}", customerId, e);
+            try {
+                requiresNew.executeWithoutResult(status -> summaryRepository.deleteAllByIdInBatch(List.of(customerId)));
+            } catch (RuntimeException deleteFailure) {
+                logger.error("Could not drop the stale summary of customer {}", customerId, deleteFailure);
+            }
+        }
+    }
+
+    public CustomerSummaryDTO refresh(Long customerId) {
+        List<CustomerSummaryDTO> summaries = rebuildLocked(List.of(customerId));
+        if (summaries.isEmpty()) {
+            throw new LoanValidationException("Customer not found");
+        }
+        return summaries.get(0);
+    }
+
+    public CustomerSummaryRebuildReport rebuildAll() {
+        long startNanos = System.nanoTime();
+        int rebuilt = 0;
+        Long lastId = 0L;
+        List<Long> ids;
+        while (!(ids = customerRepository.findIdsAfter(lastId, PageRequest.of(0, pageSize))).isEmpty()) {
+            rebuilt += rebuildLocked(ids).size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        logger.info("Rebuilt {} customer summaries in {} ms", rebuilt, elapsedMillis);
+        return CustomerSummaryRebuildReport.builder()
+                .rebuiltCustomers(rebuilt)
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    // Serialized per customer so a slower rebuild cannot overwrite a newer document. Stripes are taken
+    // in ascending order, so a page rebuild and single refreshes never wait on each other in a cycle
+    private List<CustomerSummaryDTO> rebuildLocked(Collection<Long> customerIds) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (Long customerId : customerIds) {
+            stripes.add(Math.floorMod(Long.hashCode(customerId), REFRESH_LOCKS));
+        }
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                refreshLocks[stripe].lock();
+                held.add(refreshLocks[stripe]);
+            }
+            return rebuild(customerIds);
+        } finally {
+            held.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    private List<CustomerSummaryDTO> rebuild(Collection<Long> customerIds) {
+        return requiresNew.execute(status -> {
+            List<Customer> customers = customerRepository.findAllById(customerIds);
+            Map<Long, List<Loan>> loansByCustomer = loanRepository.findWithInstallmentsByCustomerIdInOrderByIdAsc(customerIds)
+                    .stream()
+                    .collect(Collectors.groupingBy(loan -> loan.getCustomer().getId()));
+
+            LocalDateTime now = LocalDateTime.now();
+            List<CustomerSummaryDTO> summaries = new ArrayList<>(customers.size());
+            List<CustomerSummary> documents = new ArrayList<>(customers.size());
+            for (Customer customer : customers) {
+                CustomerSummaryDTO summary = build(customer, loansByCustomer.getOrDefault(customer.getId(), List.of()),
+                        now);
+                CustomerSummary document = new CustomerSummary();
+                document.setCustomerId(customer.getId());
+                document.setDocument(writeDocument(summary));
+                document.setUpdatedAt(now);
+                summaries.add(summary);
+                documents.add(document);
+            }
+
+            summaryRepository.deleteAllByIdInBatch(customerIds);
+            summaryRepository.saveAll(documents);
+            return summaries;
+        });
+    }
+
+    private CustomerSummaryDTO build(Customer customer, List<Loan> loans, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        List<CustomerSummaryLoanDTO> loanSummaries = new ArrayList<>(loans.size());
+        int activeLoans = 0;
+        int latePayments = 0;
+        long totalOutstanding = 0;
+
+        for (Loan loan : loans) {
+            if (!loan.isPaid()) {
+                activeLoans++;
+                for (LoanInstallment installment : loan.getInstallments()) {
+                    if (!installment.isPaid()) {
+                        totalOutstanding += MoneyMath.toMinor(installment.getAmount());
+                        if (installment.getDueDate().isBefore(today)) {
+                            latePayments++;
+                        }
+                    }
+                }
+            }
+            loanSummaries.add(CustomerSummaryLoanDTO.builder()
+                    .loanId(loan.getId())
+                    .loanAmount(loan.getLoanAmount())
+                    .interestRate(loan.getInterestRate())
+                    .numberOfInstallments(loan.getNumberOfInstallments())
+                    .amortizationMethod(AmortizationService.methodOf(loan))
+                    .createDate(loan.getCreateDate())
+                    .paid(loan.isPaid())
+                    .outstandingAmount(loan.getOutstandingAmount())
+                    .outstandingPrincipal(loan.getOutstandingPrincipal())
+                    .paidInstallmentCount(loan.getPaidInstallmentCount())
+                    .nextDueDate(loan.getNextDueDate())
+                    .paymentPlan(amortizationService.paymentPlan(loan))
+                    .build());
+        }
+
+        BigDecimal totalDebt = MoneyMath.toDecimal(totalOutstanding);
+        return CustomerSummaryDTO.builder()
+                .customerId(customer.getId())
+                .name(customer.getName())
+                .surname(customer.getSurname())
+                .creditLimit(customer.getCreditLimit())
+                .usedCreditLimit(customer.getUsedCreditLimit())
+                .activeLoans(activeLoans)
+                .totalOutstanding(totalDebt)
+                .risk(RiskScoring.analyze(customer.getId(), customer.getCreditLimit(), customer.getUsedCreditLimit(),
+                        activeLoans, latePayments, totalDebt))
+                .loans(loanSummaries)
+                .updatedAt(now)
+                .build();
+    }
+
+    private String writeDocument(CustomerSummaryDTO summary) {
+        try {
+            return objectMapper.writeValueAsString(summary);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize customer summary", e);
+        }
+    }
+
+    private CustomerSummaryDTO readDocument(String document) {
+        try {
+            return objectMapper.readValue(document, CustomerSummaryDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read customer summary", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.model.AmortizationMethod;
+import com.example.loanapp.util.MoneyMath;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Equal principal parts with interest charged on the outstanding principal, so installments shrink over
+ * the term. The last principal part absorbs the rounding.
+ */
+@Component
+public class DecliningBalanceAmortization implements AmortizationStrategy {
+
+    @Override
+    public AmortizationMethod method() {
+        return AmortizationMethod.DECLINING_BALANCE;
+    }
+
+    @Override
+    public AmortizationSchedule schedule(BigDecimal loanAmount, BigDecimal interestRate, int numberOfInstallments) {
+        PeriodicRate rate = PeriodicRate.of(interestRate);
+        long principal = MoneyMath.toMinorRounded(loanAmount);
+        long principalShare = MoneyMath.share(principal, numberOfInstallments);
+
+        long[] amounts = new long[numberOfInstallments];
+        long[] principals = new long[numberOfInstallments];
+        long remaining = principal;
+        for (int i = 0; i < numberOfInstallments; i++) {
+            long principalPart = i == numberOfInstallments - 1 ? remaining : Math.min(principalShare, remaining);
+            principals[i] = principalPart;
+            amounts[i] = principalPart + rate.interestOn(remaining);
+            remaining -= principalPart;
+        }
+        return new AmortizationSchedule(principal, amounts, principals);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.model.AmortizationMethod;
+import com.example.loanapp.util.MoneyMath;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Equal installments of {@code loanAmount * (1 + rate) / n} with an equal principal share, exactly as
+ * loans were scheduled before amortization methods existed. The last principal part absorbs the
+ * rounding so the principal parts add up to the loan amount.
+ */
+@Component
+public class FlatAmortization implements AmortizationStrategy {
+
+    @Override
+    public AmortizationMethod method() {
+        return AmortizationMethod.FLAT;
+    }
+
+    @Override
+    public AmortizationSchedule schedule(BigDecimal loanAmount, BigDecimal interestRate, int numberOfInstallments) {
+        long principal = MoneyMath.toMinorRounded(loanAmount);
+        long[] amounts = new long[numberOfInstallments];
+        long[] principals = new long[numberOfInstallments];
+        Arrays.fill(amounts, MoneyMath.flatInstallment(loanAmount, interestRate, numberOfInstallments));
+        long share = MoneyMath.share(principal, numberOfInstallments);
+        Arrays.fill(principals, share);
+        // The last principal part takes the rounding remainder; the installment amounts stay equal
+        principals[numberOfInstallments - 1] = principal - share * (numberOfInstallments - 1);
+        return new AmortizationSchedule(principal, amounts, principals);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.PayLoanRequest;
+import com.example.loanapp.dto.PaymentResponse;
+import com.example.loanapp.exception.LoanValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class IdempotentPaymentService {
+    private final LoanService loanService;
+    private final PaymentIdempotencyStore idempotencyStore;
+    private final PaymentLanes paymentLanes;
+
+    public PaymentResponse payLoan(PayLoanRequest request) {
+        if (request.getLoanId() == null) {
+            throw new LoanValidationException("Loan id is required");
+        }
+        return paymentLanes.run(request.getLoanId(), () -> payInLane(request));
+    }
+
+    private PaymentResponse payInLane(PayLoanRequest request) {
+        String idempotencyKey = request.getIdempotencyKey();
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return loanService.payLoan(request);
+        }
+
+        Optional<PaymentResponse> previous = idempotencyStore.find(request);
+        if (previous.isPresent()) {
+            return previous.get();
+        }
+
+        try {
+            return loanService.payLoan(request);
+        } catch (RuntimeException e) {
+            // A concurrent retry with the same key may have committed first; answer with its result
+            return idempotencyStore.find(request).orElseThrow(() -> e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.config.CacheConfig;
+import com.example.loanapp.dto.LoanBalanceReport;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.model.LoanInstallment;
+import com.example.loanapp.repository.LoanInstallmentRepository;
+import com.example.loanapp.repository.LoanRepository;
+import com.example.loanapp.util.MoneyMath;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class LoanBalanceService {
+    private static final Logger logger = LoggerFactory.getLogger(LoanBalanceService.class);
+    private static final int PAGE_SIZE = 500;
+    private static final int MAX_REPORTED_IDS = 100;
+
+    private final LoanRepository loanRepository;
+    private final LoanInstallmentRepository installmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AmortizationService amortizationService;
+
+    public void recalculate(Loan loan, List<LoanInstallment> installments) {
+        long outstandingAmount = 0;
+        int paidCount = 0;
+        LocalDate nextDueDate = null;
+
+        for (LoanInstallment installment : installments) {
+            if (installment.isPaid()) {
+                paidCount++;
+            } else {
+                outstandingAmount += MoneyMath.toMinor(installment.getAmount());
+                if (nextDueDate == null || installment.getDueDate().isBefore(nextDueDate)) {
+                    nextDueDate = installment.getDueDate();
+                }
+            }
+        }
+
+        loan.setOutstandingAmount(MoneyMath.toDecimal(outstandingAmount));
+        loan.setPaidInstallmentCount(paidCount);
+        loan.setOutstandingPrincipal(MoneyMath.toDecimal(outstandingPrincipal(loan, paidCount)));
+        loan.setNextDueDate(nextDueDate);
+    }
+
+    public void applyPayment(Loan loan, long paidAmount, int paidCount) {
+        if (loan.getPaidInstallmentCount() == null) {
+            recalculate(loan, loan.getInstallments());
+            return;
+        }
+
+        int totalPaidCount = loan.getPaidInstallmentCount() + paidCount;
+        loan.setOutstandingAmount(MoneyMath.toDecimal(MoneyMath.toMinor(loan.getOutstandingAmount()) - paidAmount));
+        loan.setPaidInstallmentCount(totalPaidCount);
+        loan.setOutstandingPrincipal(MoneyMath.toDecimal(outstandingPrincipal(loan, totalPaidCount)));
+        loan.setNextDueDate(loan.getInstallments().stream()
+                .filter(i -> !i.isPaid())
+                .map(LoanInstallment::getDueDate)
+                .min(LocalDate::compareTo)
+                .orElse(null));
+    }
+
+    public LoanBalanceReport verifyAll() {
+        return scan(false);
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.PAYMENT_PLANS, CacheConfig.EARLY_CLOSURE_QUOTES}, allEntries = true)
+    public LoanBalanceReport rebuildAll() {
+        return scan(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @CacheEvict(cacheNames = {CacheConfig.PAYMENT_PLANS, CacheConfig.EARLY_CLOSURE_QUOTES}, allEntries = true)
+    public void rebuildMissingBalances() {
+        long missing = loanRepository.countByPaidInstallmentCountIsNull();
+        if (missing == 0) {
+            return;
+        }
+
+        logger.info("Backfilling running balances for {} loans without them", missing);
+        long lastId = 0L;
+        while (true) {
+            long afterId = lastId;
+            Long pageLastId = transactionTemplate.execute(status -> backfillPage(afterId));
+            if (pageLastId == null) {
+                break;
+            }
+            lastId = pageLastId;
+        }
+    }
+
+    private Long backfillPage(long afterId) {
+        List<Loan> loans = loanRepository.findByPaidInstallmentCountIsNullAndIdGreaterThanOrderByIdAsc(
+                afterId, PageRequest.of(0, PAGE_SIZE));
+        if (loans.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, List<LoanInstallment>> installmentsByLoan = installmentsByLoan(loans);
+        for (Loan loan : loans) {
+            recalculate(loan, installmentsByLoan.getOrDefault(loan.getId(), List.of()));
+        }
+        return loans.get(loans.size() - 1).getId();
+    }
+
+    private LoanBalanceReport scan(boolean repair) {
+        long checked = 0;
+        long inconsistent = 0;
+        List<Long> inconsistentIds = new ArrayList<>();
+        long lastId = 0L;
+
+        // One transaction per page keeps the persistence context small on large portfolios
+        while (true) {
+            long afterId = lastId;
+            PageResult page = transactionTemplate.execute(status -> {
+                PageResult result = checkPage(afterId, repair);
+                if (!repair) {
+                    status.setRollbackOnly();
+                }
+                return result;
+            });
+
+            if (page == null || page.checked() == 0) {
+                break;
+            }
+            checked += page.checked();
+            inconsistent += page.inconsistentIds().size();
+            page.inconsistentIds().stream()
+                    .limit(MAX_REPORTED_IDS - inconsistentIds.size())
+                    .forEach(inconsistentIds::add);
+            lastId = page.lastId();
+        }
+
+        return LoanBalanceReport.builder()
+                .checkedLoans(checked)
+                .inconsistentLoans(inconsistent)
+                .repairedLoans(repair ? inconsistent : 0)
+                .inconsistentLoanIds(inconsistentIds)
+                .build();
+    }
+
+    private PageResult checkPage(long afterId, boolean repair) {
+        List<Loan> loans = loanRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, PAGE_SIZE));
+        if (loans.isEmpty()) {
+            return new PageResult(0, afterId, List.of());
+        }
+
+        Map<Long, List<LoanInstallment>> installmentsByLoan = installmentsByLoan(loans);
+
+        List<Long> inconsistentIds = new ArrayList<>();
+        for (Loan loan : loans) {
+            List<LoanInstallment> installments = installmentsByLoan.getOrDefault(loan.getId(), List.of());
+            Loan expected = new Loan();
+            expected.setLoanAmount(loan.getLoanAmount());
+            expected.setNumberOfInstallments(loan.getNumberOfInstallments());
+            expected.setInterestRate(loan.getInterestRate());
+            expected.setAmortizationMethod(loan.getAmortizationMethod());
+            recalculate(expected, installments);
+
+            if (!matches(loan, expected)) {
+                inconsistentIds.add(loan.getId());
+                if (repair) {
+                    recalculate(loan, installments);
+                }
+            }
+        }
+        return new PageResult(loans.size(), loans.get(loans.size() - 1).getId(), inconsistentIds);
+    }
+
+    private Map<Long, List<LoanInstallment>> installmentsByLoan(List<Loan> loans) {
+        return installmentRepository
+                .findByLoanIdIn(loans.stream().map(Loan::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(i -> i.getLoan().getId()));
+    }
+
+    private long outstandingPrincipal(Loan loan, int paidCount) {
+        return amortizationService.schedule(loan).outstandingPrincipal(paidCount);
+    }
+
+    private boolean matches(Loan actual, Loan expected) {
+        return sameAmount(actual.getOutstandingAmount(), expected.getOutstandingAmount())
+                && sameAmount(actual.getOutstandingPrincipal(), expected.getOutstandingPrincipal())
+                && Objects.equals(actual.getPaidInstallmentCount(), expected.getPaidInstallmentCount())
+                && Objects.equals(actual.getNextDueDate(), expected.getNextDueDate());
+    }
+
+    private boolean sameAmount(BigDecimal actual, BigDecimal expected) {
+        return actual != null && actual.compareTo(expected) == 0;
+    }
+
+    private record PageResult(int checked, long lastId, List<Long> inconsistentIds) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.BatchLoanItemResult;
+import com.example.loanapp.dto.BatchLoanResponse;
+import com.example.loanapp.dto.CreateLoanRequest;
+import com.example.loanapp.exception.LoanValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class LoanBatchService {
+    private static final Logger logger = LoggerFactory.getLogger(LoanBatchService.class);
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    private final LoanService loanService;
+    private final int chunkSize;
+
+    public LoanBatchService(LoanService loanService, @Value("${loan.batch.chunk-size:500}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("loan.batch.chunk-size must be positive, was " + chunkSize);
+        }
+        this.loanService = loanService;
+        this.chunkSize = chunkSize;
+    }
+
+    public BatchLoanResponse createLoans(List<CreateLoanRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new LoanValidationException("Batch must contain at least one loan request");
+        }
+
+        long start = System.nanoTime();
+        List<BatchLoanItemResult> results = new ArrayList<>(requests.size());
+
+        // Each chunk runs in its own transaction so one failing chunk does not roll back the others
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            List<CreateLoanRequest> chunk = requests.subList(from, Math.min(from + chunkSize, requests.size()));
+            try {
+                results.addAll(createChunk(chunk, from));
+            } catch (RuntimeException e) {
+                logger.error("Loan batch chunk starting at index {} failed", from, e);
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(BatchLoanItemResult.builder()
+                            .index(from + i)
+                            .success(false)
+                            .error("Chunk failed: " + e.getMessage())
+                            .build());
+                }
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        int succeeded = (int) results.stream().filter(BatchLoanItemResult::isSuccess).count();
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+
+        return BatchLoanResponse.builder()
+                .totalRequests(requests.size())
+                .succeeded(succeeded)
+                .failed(requests.size() - succeeded)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .loansPerSecond(elapsedSeconds > 0 ? succeeded / elapsedSeconds : 0)
+                .results(results)
+                .build();
+    }
+
+    private List<BatchLoanItemResult> createChunk(List<CreateLoanRequest> chunk, int firstIndex) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return loanService.createLoanChunk(chunk, firstIndex);
+            } catch (OptimisticLockingFailureException e) {
+                // A customer's credit limit changed concurrently; the whole chunk was rolled back
+                if (attempt >= MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Retrying loan batch chunk starting at index {} after concurrent update", firstIndex);
+            }
+        }
+    }
+}
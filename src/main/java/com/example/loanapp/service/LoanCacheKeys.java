@@ -0,0 +1,22 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.repository.LoanRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache keys for values derived from a loan. Keys carry the loan's optimistic-lock version, which
+ * every payment or balance repair increments, so a value computed from an older state can never be
+ * read back once the change has committed, even if it is put after the change. The version is read
+ * through the second-level entity cache and normally costs no query.
+ */
+@Component("loanCacheKeys")
+@RequiredArgsConstructor
+public class LoanCacheKeys {
+    private final LoanRepository loanRepository;
+
+    public String of(Long loanId) {
+        return loanId + ":" + loanRepository.findById(loanId).map(Loan::getVersion).orElse(null);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.exception.LoanValidationException;
+
+public enum LoanExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    LoanExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static LoanExportFormat from(String format) {
+        for (LoanExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new LoanValidationException("Unsupported export format: " + format);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.repository.LoanExportRow;
+import com.example.loanapp.repository.LoanInstallmentRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole portfolio from a forward-only cursor straight to the caller's output stream.
+ * Rows arrive ordered by loan, so NDJSON nests installments under their loan without buffering
+ * and memory stays constant regardless of portfolio size.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoanExportService {
+    private static final String CSV_HEADER = "loan_id,customer_id,loan_amount,interest_rate,number_of_installments," +
+            "create_date,loan_paid,outstanding_amount,installment_id,installment_amount,paid_amount,due_date," +
+            "payment_date,installment_paid";
+
+    private final LoanInstallmentRepository installmentRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long export(LoanExportFormat format, OutputStream out) throws IOException {
+        try (Stream<LoanExportRow> rows = installmentRepository.streamForExport()) {
+            return format == LoanExportFormat.CSV
+                    ? writeCsv(rows.iterator(), out)
+                    : writeNdjson(rows.iterator(), out);
+        }
+    }
+
+    private long writeNdjson(Iterator<LoanExportRow> rows, OutputStream out) throws IOException {
+        long loans = 0;
+        Long currentLoanId = null;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (rows.hasNext()) {
+                LoanExportRow row = rows.next();
+                if (!row.loanId().equals(currentLoanId)) {
+                    if (currentLoanId != null) {
+                        endLoan(json);
+                    }
+                    startLoan(json, row);
+                    currentLoanId = row.loanId();
+                    loans++;
+                }
+                json.writeStartObject();
+                json.writeNumberField("id", row.installmentId());
+                json.writeNumberField("amount", row.installmentAmount());
+                json.writeNumberField("paidAmount", row.paidAmount());
+                json.writeStringField("dueDate", row.dueDate().toString());
+                json.writeStringField("paymentDate", Objects.toString(row.paymentDate(), null));
+                json.writeBooleanField("paid", row.installmentPaid());
+                json.writeEndObject();
+            }
+            if (currentLoanId != null) {
+                endLoan(json);
+            }
+        }
+        return loans;
+    }
+
+    private void startLoan(JsonGenerator json, LoanExportRow row) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("loanId", row.loanId());
+        json.writeNumberField("customerId", row.customerId());
+        json.writeNumberField("loanAmount", row.loanAmount());
+        json.writeNumberField("interestRate", row.interestRate());
+        json.writeNumberField("numberOfInstallments", row.numberOfInstallments());
+        json.writeStringField("createDate", row.createDate().toString());
+        json.writeBooleanField("paid", row.loanPaid());
+        json.writeNumberField("outstandingAmount", row.outstandingAmount());
+        json.writeArrayFieldStart("installments");
+    }
+
+    private void endLoan(JsonGenerator json) throws IOException {
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private long writeCsv(Iterator<LoanExportRow> rows, OutputStream out) throws IOException {
+        long loans = 0;
+        Long currentLoanId = null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            LoanExportRow row = rows.next();
+            if (!row.loanId().equals(currentLoanId)) {
+                currentLoanId = row.loanId();
+                loans++;
+            }
+            writer.write(row.loanId() + "," + row.customerId() + "," + row.loanAmount().toPlainString() + ","
+                    + row.interestRate().toPlainString() + "," + row.numberOfInstallments() + ","
+                    + row.createDate() + "," + row.loanPaid() + "," + plain(row.outstandingAmount()) + ","
+                    + row.installmentId() + "," + row.installmentAmount().toPlainString() + ","
+                    + row.paidAmount().toPlainString() + "," + row.dueDate() + ","
+                    + Objects.toString(row.paymentDate(), "") + "," + row.installmentPaid());
+            writer.write('\n');
+        }
+        writer.flush();
+        return loans;
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.CreateLoanRequest;
+import com.example.loanapp.model.AmortizationMethod;
+import com.example.loanapp.model.Customer;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.model.LoanInstallment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds new loans and their installments in memory. Deliberately not transactional, so callers that
+ * build many loans in one transaction, like the portfolio import, can reject a single failing loan
+ * without the failure marking their transaction rollback-only.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoanFactory {
+    private final AmortizationService amortizationService;
+
+    /**
+     * Schedule a loan built from {@code request} gets. Throws {@link ArithmeticException} when its
+     * amounts do not fit in long cents.
+     */
+    public AmortizationSchedule schedule(CreateLoanRequest request) {
+        return amortizationService.schedule(methodOf(request), request.getAmount(), request.getInterestRate(),
+                request.getNumberOfInstallments());
+    }
+
+    public Loan buildLoan(Customer customer, CreateLoanRequest request) {
+        Loan loan = new Loan();
+        loan.setCustomer(customer);
+        loan.setLoanAmount(request.getAmount());
+        loan.setNumberOfInstallments(request.getNumberOfInstallments());
+        loan.setInterestRate(request.getInterestRate());
+        loan.setAmortizationMethod(methodOf(request));
+        loan.setCreateDate(LocalDateTime.now());
+        loan.setPaid(false);
+        return loan;
+    }
+
+    public List<LoanInstallment> createInstallments(Loan loan) {
+        List<LoanInstallment> installments = new ArrayList<>();
+        AmortizationSchedule schedule = amortizationService.schedule(loan);
+
+        LocalDate firstDueDate = loan.getCreateDate().toLocalDate().withDayOfMonth(1).plusMonths(1);
+
+        for (int i = 0; i < loan.getNumberOfInstallments(); i++) {
+            installments.add(LoanInstallment.builder()
+                    .loan(loan)
+                    .amount(schedule.amountDecimal(i))
+                    .paidAmount(BigDecimal.ZERO)
+                    .dueDate(firstDueDate.plusMonths(i))
+                    .paid(false)
+                    .build());
+        }
+
+        return installments;
+    }
+
+    private static AmortizationMethod methodOf(CreateLoanRequest request) {
+        return request.getAmortizationMethod() == null ? AmortizationMethod.FLAT : request.getAmortizationMethod();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.exception.LoanValidationException;
+import com.example.loanapp.util.MoneyMath;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Meters for loan and payment operations. Every operation is timed under {@code loan.operations}
+ * with its installment tenor and an outcome of success, rejected (validation) or error. Inside a
+ * transaction an operation is only stopped once the transaction completes, so its latency includes
+ * the commit and a failed commit counts as an error.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoanMetrics {
+    private static final String NO_TENOR = "none";
+
+    private final MeterRegistry registry;
+
+    public <T> T record(String name, Function<Operation, T> action) {
+        Operation operation = new Operation(name, Timer.start(registry));
+        boolean completed = false;
+        try {
+            T result = action.apply(operation);
+            completed = true;
+            whenCompleted(committed -> operation.stop(committed ? "success" : "error"));
+            return result;
+        } catch (LoanValidationException e) {
+            operation.outcome = "rejected";
+            throw e;
+        } finally {
+            if (!completed) {
+                operation.stop(operation.outcome);
+            }
+        }
+    }
+
+    public void recordPayment(Integer tenor, int paidInstallments, long discount, long penalty) {
+        whenCompleted(committed -> {
+            if (committed) {
+                registerPayment(tenor, paidInstallments, discount, penalty);
+            }
+        });
+    }
+
+    private void registerPayment(Integer tenor, int paidInstallments, long discount, long penalty) {
+        DistributionSummary.builder("loan.payment.installments")
+                .description("Installments settled by a single payment")
+                .tag("tenor", tenorTag(tenor))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(paidInstallments);
+        Counter.builder("loan.payment.discount")
+                .description("Early payment discounts granted")
+                .tag("tenor", tenorTag(tenor))
+                .register(registry)
+                .increment(MoneyMath.toDecimal(discount).doubleValue());
+        Counter.builder("loan.payment.penalty")
+                .description("Late payment penalties charged")
+                .tag("tenor", tenorTag(tenor))
+                .register(registry)
+                .increment(MoneyMath.toDecimal(penalty).doubleValue());
+    }
+
+    public void recordImport(String type, String outcome, long rows) {
+        whenCompleted(committed -> {
+            if (committed) {
+                Counter.builder("loan.import.rows")
+                        .description("Rows processed by the portfolio import")
+                        .tag("type", type)
+                        .tag("outcome", outcome)
+                        .register(registry)
+                        .increment(rows);
+            }
+        });
+    }
+
+    public void recordValidationFailure(String uri) {
+        Counter.builder("loan.validation.failures")
+                .description("Requests rejected with a LoanValidationException")
+                .tag("uri", uri == null ? "UNKNOWN" : uri)
+                .register(registry)
+                .increment();
+    }
+
+    // Runs the callback with whether the surrounding transaction committed, or right away outside one
+    private static void whenCompleted(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static String tenorTag(Integer tenor) {
+        return tenor == null ? NO_TENOR : tenor.toString();
+    }
+
+    public class Operation {
+        private final String name;
+        private final Timer.Sample sample;
+        private Integer tenor;
+        private String outcome = "error";
+
+        private Operation(String name, Timer.Sample sample) {
+            this.name = name;
+            this.sample = sample;
+        }
+
+        public void tenor(Integer tenor) {
+            this.tenor = tenor;
+        }
+
+        private void stop(String outcome) {
+            sample.stop(Timer.builder("loan.operations")
+                    .description("Latency of loan and payment operations")
+                    .tag("operation", name)
+                    .tag("tenor", tenorTag(tenor))
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.example.loanapp.service;
 
+import com.example.loanapp.config.CacheConfig;
+import com.example.loanapp.dto.BatchLoanItemResult;
 import com.example.loanapp.dto.CreateLoanRequest;
+import com.example.loanapp.dto.CreateLoanResponse;
 import com.example.loanapp.dto.PayLoanRequest;
 import com.example.loanapp.dto.PaymentResponse;
 import com.example.loanapp.dto.CustomerLoanDTO;
+import com.example.loanapp.dto.DetailedPaymentResponse;
+import com.example.loanapp.dto.LoanFilterDTO;
 import com.example.loanapp.dto.LoanInstallmentDTO;
+import com.example.loanapp.dto.LoanResponseDTO;
+import com.example.loanapp.dto.LoanSearchResponse;
 import com.example.loanapp.dto.LoanHistoryDTO;
 import com.example.loanapp.dto.PaymentPlanDTO;
 import com.example.loanapp.dto.RiskAnalysisDTO;
@@ -16,21 +23,27 @@ import com.example.loanapp.model.LoanInstallment;
 import com.example.loanapp.repository.CustomerRepository;
 import com.example.loanapp.repository.LoanInstallmentRepository;
 import com.example.loanapp.repository.LoanRepository;
+import com.example.loanapp.util.MoneyMath;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -41,41 +54,118 @@ public class LoanService {
     private static final Set<Integer> VALID_INSTALLMENTS = Set.of(6, 9, 12, 24);
     private static final BigDecimal MIN_INTEREST_RATE = new BigDecimal("0.1");
     private static final BigDecimal MAX_INTEREST_RATE = new BigDecimal("0.5");
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
 
     private final LoanRepository loanRepository;
     private final LoanInstallmentRepository installmentRepository;
     private final CustomerRepository customerRepository;
+    private final LoanValidationService loanValidationService;
+    private final LoanBalanceService loanBalanceService;
+    private final CreditLimitService creditLimitService;
+    private final PaymentIdempotencyStore idempotencyStore;
+    private final LoanMetrics loanMetrics;
+    private final AmortizationService amortizationService;
+    private final PaymentService paymentService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoanFactory loanFactory;
 
     private static final Logger logger = LoggerFactory.getLogger(LoanService.class);
 
     @Transactional
-    public Loan createLoan(CreateLoanRequest request) {
-        Customer customer = customerRepository.findById(request.getCustomerId())
-                .orElseThrow(() -> new LoanValidationException("Customer not found"));
+    public CreateLoanResponse createLoan(CreateLoanRequest request) {
+        return loanMetrics.record("create_loan", operation -> {
+            operation.tenor(request.getNumberOfInstallments());
+            creditLimitService.reserve(request.getCustomerId(), request.getAmount());
+
+            Loan loan = loanFactory.buildLoan(customerRepository.getReferenceById(request.getCustomerId()), request);
+            List<LoanInstallment> installments = loanFactory.createInstallments(loan);
+            loanBalanceService.recalculate(loan, installments);
+
+            loan = loanRepository.save(loan);
+            installmentRepository.saveAll(installments);
+            eventPublisher.publishEvent(new CustomerLoansChangedEvent(request.getCustomerId()));
+
+            // Built from the request's customer id so the lazy customer proxy is never initialized
+            return CreateLoanResponse.builder()
+                    .id(loan.getId())
+                    .customerId(request.getCustomerId())
+                    .loanAmount(loan.getLoanAmount())
+                    .interestRate(loan.getInterestRate())
+                    .numberOfInstallments(loan.getNumberOfInstallments())
+                    .amortizationMethod(loan.getAmortizationMethod())
+                    .createDate(loan.getCreateDate())
+                    .outstandingAmount(loan.getOutstandingAmount())
+                    .nextDueDate(loan.getNextDueDate())
+                    .build();
+        });
+    }
 
-        validateCustomerLimit(customer, request.getAmount());
+    @Transactional
+    public List<BatchLoanItemResult> createLoanChunk(List<CreateLoanRequest> requests, int firstIndex) {
+        Set<Long> customerIds = requests.stream()
+                .map(CreateLoanRequest::getCustomerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Customer> customers = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        List<BatchLoanItemResult> results = new ArrayList<>(requests.size());
+        List<BatchLoanItemResult> createdResults = new ArrayList<>();
+        List<Loan> loans = new ArrayList<>();
+        List<LoanInstallment> installments = new ArrayList<>();
 
-        Loan loan = new Loan();
-        loan.setCustomer(customer);
-        loan.setLoanAmount(request.getAmount());
-        loan.setNumberOfInstallments(request.getNumberOfInstallments());
-        loan.setInterestRate(request.getInterestRate());
-        loan.setCreateDate(LocalDateTime.now());
-        loan.setPaid(false);
+        for (int i = 0; i < requests.size(); i++) {
+            CreateLoanRequest request = requests.get(i);
+            BatchLoanItemResult result = BatchLoanItemResult.builder().index(firstIndex + i).build();
+            try {
+                loanValidationService.validateLoanRequest(request);
+                Customer customer = customers.get(request.getCustomerId());
+                if (customer == null) {
+                    throw new LoanValidationException("Customer not found");
+                }
+                loanValidationService.validateCustomerLimit(customer, request.getAmount());
+
+                Loan loan = loanFactory.buildLoan(customer, request);
+                List<LoanInstallment> loanInstallments = loanFactory.createInstallments(loan);
+                loanBalanceService.recalculate(loan, loanInstallments);
+                loans.add(loan);
+                installments.addAll(loanInstallments);
+                customer.setUsedCreditLimit(customer.getUsedCreditLimit().add(request.getAmount()));
+
+                result.setSuccess(true);
+                createdResults.add(result);
+            } catch (LoanValidationException e) {
+                result.setError(e.getMessage());
+            }
+            results.add(result);
+        }
 
-        loan = loanRepository.save(loan);
-        List<LoanInstallment> installments = createInstallments(loan);
+        loanRepository.saveAll(loans);
         installmentRepository.saveAll(installments);
-        
-        updateCustomerLimit(customer, request.getAmount());
-        
-        return loan;
+        loans.stream()
+                .map(loan -> loan.getCustomer().getId())
+                .distinct()
+                .forEach(customerId -> eventPublisher.publishEvent(new CustomerLoansChangedEvent(customerId)));
+
+        for (int i = 0; i < loans.size(); i++) {
+            createdResults.get(i).setLoanId(loans.get(i).getId());
+        }
+        return results;
     }
 
+    // The payment bumps the loan version, so cached plans and quotes keyed on the old one go stale
+    // on their own and expire from the cache
     @Transactional
     public PaymentResponse payLoan(PayLoanRequest request) {
+        return loanMetrics.record("pay_loan", operation -> payInstallments(request, operation));
+    }
+
+    private PaymentResponse payInstallments(PayLoanRequest request, LoanMetrics.Operation operation) {
         Loan loan = loanRepository.findById(request.getLoanId())
                 .orElseThrow(() -> new LoanValidationException("Loan not found"));
+        operation.tenor(loan.getNumberOfInstallments());
 
         if (loan.isPaid()) {
             throw new LoanValidationException("Loan is already paid");
@@ -91,68 +181,71 @@ public class LoanService {
             throw new LoanValidationException("No eligible installments found within 3 months");
         }
 
-        BigDecimal maxPayableAmount = unpaidInstallments.stream()
-                .map(LoanInstallment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        if (request.getAmount().compareTo(maxPayableAmount) > 0) {
-            throw new LoanValidationException("Cannot pay more than the total of next 3 months installments: " + maxPayableAmount);
-        }
-
-        int paidCount = 0;
-        BigDecimal remainingAmount = request.getAmount();
-
+        long maxPayableAmount = 0;
         for (LoanInstallment installment : unpaidInstallments) {
-            if (remainingAmount.compareTo(installment.getAmount()) >= 0) {
-                long daysDifference = ChronoUnit.DAYS.between(LocalDate.now(), installment.getDueDate());
-                BigDecimal actualPaidAmount = installment.getAmount();
-
-                if (daysDifference > 0) {
-                    // Early payment discount
-                    BigDecimal discount = installment.getAmount()
-                            .multiply(new BigDecimal("0.001"))
-                            .multiply(BigDecimal.valueOf(daysDifference));
-                    actualPaidAmount = actualPaidAmount.subtract(discount);
-                } else if (daysDifference < 0) {
-                    // Late payment penalty
-                    BigDecimal penalty = installment.getAmount()
-                            .multiply(new BigDecimal("0.001"))
-                            .multiply(BigDecimal.valueOf(Math.abs(daysDifference)));
-                    actualPaidAmount = actualPaidAmount.add(penalty);
-                }
+            maxPayableAmount += MoneyMath.toMinor(installment.getAmount());
+        }
 
-                installment.setPaid(true);
-                installment.setPaidAmount(actualPaidAmount);
-                installment.setPaymentDate(LocalDate.now());
-                installmentRepository.save(installment);
+        if (request.getAmount().compareTo(MoneyMath.toDecimal(maxPayableAmount)) > 0) {
+            throw new LoanValidationException("Cannot pay more than the total of next 3 months installments: " + MoneyMath.toDecimal(maxPayableAmount));
+        }
 
-                remainingAmount = remainingAmount.subtract(installment.getAmount());
-                paidCount++;
-            } else {
-                break;
-            }
+        DetailedPaymentResponse payment = paymentService.processPayment(loan, unpaidInstallments, request.getAmount());
+        loanBalanceService.applyPayment(loan, MoneyMath.toMinor(payment.getTotalPaidAmount()),
+                payment.getPaidInstallments());
 
-        }
+        eventPublisher.publishEvent(new CustomerLoansChangedEvent(loan.getCustomer().getId()));
 
-        boolean isFullyPaid = loan.getInstallments().stream().allMatch(LoanInstallment::isPaid);
+        boolean isFullyPaid = payment.isLoanFullyPaid();
         if (isFullyPaid) {
             loan.setPaid(true);
             loanRepository.save(loan);
-            updateCustomerLimitAfterPayment(loan.getCustomer(), loan.getLoanAmount());
+            creditLimitService.release(loan.getCustomer().getId(), loan.getLoanAmount());
         }
 
-        return PaymentResponse.builder()
-                .paidInstallments(paidCount)
-                .totalPaidAmount(request.getAmount().subtract(remainingAmount))
+        PaymentResponse response = PaymentResponse.builder()
+                .paidInstallments(payment.getPaidInstallments())
+                .totalPaidAmount(payment.getTotalPaidAmount())
                 .isLoanFullyPaid(isFullyPaid)
+                .remainingLoanAmount(payment.getRemainingDebt())
+                .paidInstallmentDetails(payment.getPaidInstallmentDetails())
                 .build();
+
+        if (request.getIdempotencyKey() != null && !request.getIdempotencyKey().isBlank()) {
+            idempotencyStore.record(request, response);
+        }
+        return response;
     }
 
     @Transactional(readOnly = true)
     public List<CustomerLoanDTO> getCustomerLoans(Long customerId) {
-        return loanRepository.findByCustomerId(customerId).stream()
-                .map(this::convertToCustomerLoanDTO)
-                .collect(Collectors.toList());
+        return loanRepository.findCustomerLoanSummaries(customerId);
+    }
+
+    @Transactional(readOnly = true)
+    public LoanSearchResponse searchLoans(LoanFilterDTO filter) {
+        int size = filter.getSize() == null ? DEFAULT_SEARCH_PAGE_SIZE : filter.getSize();
+        if (size <= 0 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new LoanValidationException("Size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if ((filter.getAfterCreateDate() == null) != (filter.getAfterId() == null)) {
+            throw new LoanValidationException("afterCreateDate and afterId must be given together");
+        }
+
+        // One extra row tells whether another page exists without a count query
+        List<LoanResponseDTO> loans = loanRepository.searchLoans(filter, size + 1);
+        boolean hasMore = loans.size() > size;
+        if (hasMore) {
+            loans = loans.subList(0, size);
+        }
+
+        LoanResponseDTO last = loans.isEmpty() ? null : loans.get(loans.size() - 1);
+        return LoanSearchResponse.builder()
+                .loans(loans)
+                .hasMore(hasMore)
+                .nextCreateDate(hasMore ? last.getCreateDate() : null)
+                .nextId(hasMore ? last.getId() : null)
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -167,139 +260,154 @@ public class LoanService {
 
     @Transactional(readOnly = true)
     public List<LoanHistoryDTO> getLoanHistory(Long loanId) {
-        Loan loan = loanRepository.findById(loanId)
+        return getLoanHistory(loanId, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Page {@code page} of the loan's history. Without a page or size the whole history is returned;
+     * a page without a size uses the default page size.
+     */
+    @Transactional(readOnly = true)
+    public List<LoanHistoryDTO> getLoanHistoryPage(Long loanId, Integer page, Integer size) {
+        if (page == null && size == null) {
+            return getLoanHistory(loanId);
+        }
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? DEFAULT_HISTORY_PAGE_SIZE : size;
+        if (pageNumber < 0 || pageSize <= 0) {
+            throw new LoanValidationException("Page must not be negative and size must be positive");
+        }
+        if (pageNumber > Integer.MAX_VALUE / pageSize) {
+            throw new LoanValidationException("Page is out of range for the requested size");
+        }
+        return getLoanHistory(loanId, pageNumber * pageSize, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LoanHistoryDTO> getLoanHistory(Long loanId, int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            throw new LoanValidationException("Page must not be negative and size must be positive");
+        }
+
+        Loan loan = loanRepository.findWithInstallmentsById(loanId)
                 .orElseThrow(() -> new LoanValidationException("Loan not found"));
 
-        List<LoanHistoryDTO> history = new ArrayList<>();
-        
-        // Loan creation record
-        history.add(LoanHistoryDTO.builder()
+        long remainingDebt = 0;
+        List<LoanInstallment> payments = new ArrayList<>();
+        for (LoanInstallment installment : loan.getInstallments()) {
+            remainingDebt += MoneyMath.toMinor(installment.getAmount());
+            if (installment.isPaid()) {
+                payments.add(installment);
+            }
+        }
+        payments.sort(Comparator.comparing(LoanInstallment::getPaymentDate));
+
+        LoanHistoryPage page = new LoanHistoryPage(offset, limit);
+        LoanHistoryDTO creation = LoanHistoryDTO.builder()
                 .transactionDate(loan.getCreateDate())
                 .transactionType("CREATION")
                 .amount(loan.getLoanAmount())
                 .remainingDebt(loan.getLoanAmount())
                 .description("Loan created")
-                .build());
-
-        // Payment records
-        loan.getInstallments().stream()
-                .filter(LoanInstallment::isPaid)
-                .forEach(installment -> {
-                    BigDecimal remainingDebt = calculateRemainingDebtAtDate(loan, installment.getPaymentDate());
-                    history.add(LoanHistoryDTO.builder()
-                            .transactionDate(installment.getPaymentDate().atStartOfDay())
-                            .transactionType("PAYMENT")
-                            .amount(installment.getPaidAmount())
-                            .remainingDebt(remainingDebt)
-                            .description(generatePaymentDescription(installment))
-                            .build());
-                });
-
-        return history.stream()
-                .sorted(Comparator.comparing(LoanHistoryDTO::getTransactionDate))
-                .collect(Collectors.toList());
+                .build();
+        boolean creationAdded = false;
+        LocalDate today = LocalDate.now();
+
+        // Single sweep in payment date order; installments paid on the same day share the balance after that day
+        int groupStart = 0;
+        while (groupStart < payments.size() && !page.isFull()) {
+            LocalDate paymentDate = payments.get(groupStart).getPaymentDate();
+            int groupEnd = groupStart;
+            while (groupEnd < payments.size() && payments.get(groupEnd).getPaymentDate().equals(paymentDate)) {
+                remainingDebt -= MoneyMath.toMinor(payments.get(groupEnd).getAmount());
+                groupEnd++;
+            }
+
+            LocalDateTime transactionDate = paymentDate.atStartOfDay();
+            if (!creationAdded && !transactionDate.isBefore(loan.getCreateDate())) {
+                page.add(creation);
+                creationAdded = true;
+            }
+            BigDecimal remainingDebtAfterDay = MoneyMath.toDecimal(remainingDebt);
+            for (int i = groupStart; i < groupEnd && !page.isFull(); i++) {
+                LoanInstallment installment = payments.get(i);
+                page.add(() -> LoanHistoryDTO.builder()
+                        .transactionDate(transactionDate)
+                        .transactionType("PAYMENT")
+                        .amount(installment.getPaidAmount())
+                        .remainingDebt(remainingDebtAfterDay)
+                        .description(generatePaymentDescription(installment, today))
+                        .build());
+            }
+            groupStart = groupEnd;
+        }
+        if (!creationAdded) {
+            page.add(creation);
+        }
+
+        return page.getEntries();
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PAYMENT_PLANS, key = "@loanCacheKeys.of(#loanId)")
     public List<PaymentPlanDTO> getPaymentPlan(Long loanId) {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new LoanValidationException("Loan not found"));
 
-        BigDecimal totalAmount = loan.getLoanAmount()
-                .multiply(BigDecimal.ONE.add(loan.getInterestRate()));
-        BigDecimal installmentAmount = totalAmount
-                .divide(BigDecimal.valueOf(loan.getNumberOfInstallments()), 2, RoundingMode.HALF_UP);
-        BigDecimal principalPerInstallment = loan.getLoanAmount()
-                .divide(BigDecimal.valueOf(loan.getNumberOfInstallments()), 2, RoundingMode.HALF_UP);
-
-        List<PaymentPlanDTO> plan = new ArrayList<>();
-        BigDecimal remainingPrincipal = loan.getLoanAmount();
-
-        for (LoanInstallment installment : loan.getInstallments()) {
-            plan.add(PaymentPlanDTO.builder()
-                    .installmentNumber(plan.size() + 1)
-                    .dueDate(installment.getDueDate())
-                    .installmentAmount(installmentAmount)
-                    .principalAmount(principalPerInstallment)
-                    .interestAmount(installmentAmount.subtract(principalPerInstallment))
-                    .remainingPrincipal(remainingPrincipal)
-                    .isPaid(installment.isPaid())
-                    .build());
-
-            remainingPrincipal = remainingPrincipal.subtract(principalPerInstallment);
-        }
-
-        return plan;
+        return amortizationService.paymentPlan(loan);
     }
 
     @Transactional(readOnly = true)
     public RiskAnalysisDTO analyzeCustomerRisk(Long customerId) {
+        return loanMetrics.record("analyze_risk", operation -> buildRiskAnalysis(customerId));
+    }
+
+    private RiskAnalysisDTO buildRiskAnalysis(Long customerId) {
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new LoanValidationException("Customer not found"));
 
-        List<Loan> activeLoans = loanRepository.findByCustomerId(customerId).stream()
-                .filter(loan -> !loan.isPaid())
-                .collect(Collectors.toList());
+        List<Loan> activeLoans = loanRepository.findByCustomerIdAndPaidFalse(customerId);
 
-        int latePayments = (int) activeLoans.stream()
-                .flatMap(loan -> loan.getInstallments().stream())
-                .filter(installment -> !installment.isPaid() && 
-                        installment.getDueDate().isBefore(LocalDate.now()))
-                .count();
+        int latePayments = (int) installmentRepository.countOverdueByCustomerId(customerId, LocalDate.now());
 
-        BigDecimal totalDebt = activeLoans.stream()
-                .flatMap(loan -> loan.getInstallments().stream())
-                .filter(i -> !i.isPaid())
-                .map(LoanInstallment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        String riskLevel = calculateRiskLevel(customer, latePayments, totalDebt);
-
-        return RiskAnalysisDTO.builder()
-                .customerId(customerId)
-                .riskLevel(riskLevel)
-                .totalDebt(totalDebt)
-                .unusedCreditLimit(customer.getCreditLimit().subtract(customer.getUsedCreditLimit()))
-                .activeLoans(activeLoans.size())
-                .latePayments(latePayments)
-                .creditScore(calculateCreditScore(latePayments, totalDebt))
-                .recommendation(generateRecommendation(riskLevel))
-                .build();
+        BigDecimal totalDebt = MoneyMath.toDecimal(activeLoans.stream()
+                .mapToLong(loan -> MoneyMath.toMinor(loan.getOutstandingAmount()))
+                .sum());
+
+        return RiskScoring.analyze(customerId, customer.getCreditLimit(), customer.getUsedCreditLimit(),
+                activeLoans.size(), latePayments, totalDebt);
     }
 
     @Transactional(readOnly = true)
+    // Quotes depend on today's date, so they are cached per loan version and closure date
+    @Cacheable(cacheNames = CacheConfig.EARLY_CLOSURE_QUOTES,
+            key = "@loanCacheKeys.of(#loanId) + ':' + T(java.time.LocalDate).now()")
     public EarlyClosureDTO calculateEarlyClosure(Long loanId) {
+        return loanMetrics.record("early_closure", operation -> buildEarlyClosure(loanId, operation));
+    }
+
+    private EarlyClosureDTO buildEarlyClosure(Long loanId, LoanMetrics.Operation operation) {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new LoanValidationException("Loan not found"));
+        operation.tenor(loan.getNumberOfInstallments());
 
-        BigDecimal remainingDebt = loan.getInstallments().stream()
-                .filter(i -> !i.isPaid())
-                .map(LoanInstallment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal savedInterest = calculateSavedInterest(loan);
-        BigDecimal earlyClosureDiscount = savedInterest.multiply(new BigDecimal("0.5")); // 50% indirim
-        BigDecimal finalAmount = remainingDebt.subtract(earlyClosureDiscount);
+        long remainingDebt = MoneyMath.toMinor(loan.getOutstandingAmount());
+        long savedInterest = calculateSavedInterest(loan);
+        long earlyClosureDiscount = MoneyMath.half(savedInterest); // 50% indirim
+        long finalAmount = MoneyMath.subtractHalf(remainingDebt, savedInterest);
 
         return EarlyClosureDTO.builder()
-                .totalRemainingDebt(remainingDebt)
-                .earlyClosureAmount(finalAmount)
-                .totalDiscount(earlyClosureDiscount)
-                .savedInterest(savedInterest)
+                .totalRemainingDebt(MoneyMath.toDecimal(remainingDebt))
+                .earlyClosureAmount(MoneyMath.toDecimal(finalAmount))
+                .totalDiscount(MoneyMath.toDecimal(earlyClosureDiscount))
+                .savedInterest(MoneyMath.toDecimal(savedInterest))
                 .closureDate(LocalDate.now())
                 .paymentInstructions("Please pay the early closure amount to complete the loan closure.")
                 .build();
     }
 
-    private BigDecimal calculateRemainingDebtAtDate(Loan loan, LocalDate date) {
-        return loan.getInstallments().stream()
-                .filter(i -> !i.isPaid() || i.getPaymentDate().isAfter(date))
-                .map(LoanInstallment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private String generatePaymentDescription(LoanInstallment installment) {
-        long daysDifference = ChronoUnit.DAYS.between(LocalDate.now(), installment.getDueDate());
+    private String generatePaymentDescription(LoanInstallment installment, LocalDate today) {
+        long daysDifference = ChronoUnit.DAYS.between(today, installment.getDueDate());
         if (daysDifference > 0) {
             return "Early payment with discount";
         } else if (daysDifference < 0) {
@@ -308,43 +416,6 @@ public class LoanService {
         return "Regular payment";
     }
 
-    private void validateCustomerLimit(Customer customer, BigDecimal amount) {
-        if (customer.getUsedCreditLimit().add(amount).compareTo(customer.getCreditLimit()) > 0) {
-            throw new LoanValidationException("Insufficient credit limit");
-        }
-    }
-
-    private void updateCustomerLimit(Customer customer, BigDecimal amount) {
-        customer.setUsedCreditLimit(customer.getUsedCreditLimit().add(amount));
-        customerRepository.save(customer);
-    }
-
-    private void updateCustomerLimitAfterPayment(Customer customer, BigDecimal amount) {
-        customer.setUsedCreditLimit(customer.getUsedCreditLimit().subtract(amount));
-        customerRepository.save(customer);
-    }
-
-    private List<LoanInstallment> createInstallments(Loan loan) {
-        List<LoanInstallment> installments = new ArrayList<>();
-        BigDecimal totalAmount = loan.getLoanAmount().multiply(BigDecimal.ONE.add(loan.getInterestRate()));
-        BigDecimal installmentAmount = totalAmount.divide(
-            BigDecimal.valueOf(loan.getNumberOfInstallments()), 2, RoundingMode.HALF_UP);
-        
-        LocalDate firstDueDate = LocalDate.now().withDayOfMonth(1).plusMonths(1);
-        
-        for (int i = 0; i < loan.getNumberOfInstallments(); i++) {
-            installments.add(LoanInstallment.builder()
-                    .loan(loan)
-                    .amount(installmentAmount)
-                    .paidAmount(BigDecimal.ZERO)
-                    .dueDate(firstDueDate.plusMonths(i))
-                    .paid(false)
-                    .build());
-        }
-        
-        return installments;
-    }
-
     private LoanInstallmentDTO convertToInstallmentDTO(LoanInstallment installment) {
         return LoanInstallmentDTO.builder()
                 .id(installment.getId())
@@ -356,56 +427,38 @@ public class LoanService {
                 .build();
     }
 
-    private CustomerLoanDTO convertToCustomerLoanDTO(Loan loan) {
-        BigDecimal remainingAmount = loan.getInstallments().stream()
-                .filter(i -> !i.isPaid())
-                .map(LoanInstallment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return CustomerLoanDTO.builder()
-                .id(loan.getId())
-                .loanAmount(loan.getLoanAmount())
-                .remainingAmount(remainingAmount)
-                .numberOfInstallments(loan.getNumberOfInstallments())
-                .createDate(loan.getCreateDate())
-                .isPaid(loan.isPaid())
-                .build();
+    private long calculateSavedInterest(Loan loan) {
+        return amortizationService.schedule(loan).outstandingInterest(loan.getPaidInstallmentCount());
     }
 
-    private Double calculateCreditScore(int latePayments, BigDecimal totalDebt) {
-        return 100.0 - (latePayments * 10) - (totalDebt.doubleValue() / 1000);
-    }
+    private static class LoanHistoryPage {
+        private final int offset;
+        private final int limit;
+        private final List<LoanHistoryDTO> entries = new ArrayList<>();
+        private int position;
 
-    private String calculateRiskLevel(Customer customer, int latePayments, BigDecimal totalDebt) {
-        if (latePayments > 3 || totalDebt.compareTo(customer.getCreditLimit()) > 0) {
-            return "HIGH";
-        } else if (latePayments > 1 || totalDebt.compareTo(customer.getCreditLimit().multiply(new BigDecimal("0.7"))) > 0) {
-            return "MEDIUM";
+        LoanHistoryPage(int offset, int limit) {
+            this.offset = offset;
+            this.limit = limit;
         }
-        return "LOW";
-    }
 
-    private String generateRecommendation(String riskLevel) {
-        switch (riskLevel) {
-            case "HIGH":
-                return "Credit applications should be carefully evaluated. Debt restructuring might be needed.";
-            case "MEDIUM":
-                return "New credit applications can be considered with additional guarantees.";
-            default:
-                return "Customer is eligible for new credit applications.";
+        void add(LoanHistoryDTO entry) {
+            add(() -> entry);
         }
-    }
 
-    private BigDecimal calculateSavedInterest(Loan loan) {
-        return loan.getInstallments().stream()
-                .filter(i -> !i.isPaid())
-                .map(i -> i.getAmount().subtract(
-                    loan.getLoanAmount().divide(
-                        BigDecimal.valueOf(loan.getNumberOfInstallments()), 
-                        2, 
-                        RoundingMode.HALF_UP
-                    )
-                ))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Entries outside the requested page are skipped without being built
+        void add(Supplier<LoanHistoryDTO> entry) {
+            if (position++ >= offset && !isFull()) {
+                entries.add(entry.get());
+            }
+        }
+
+        boolean isFull() {
+            return entries.size() >= limit;
+        }
+
+        List<LoanHistoryDTO> getEntries() {
+            return entries;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.example.loanapp.service;
 
 import com.example.loanapp.dto.CreateLoanRequest;
 import com.example.loanapp.exception.LoanValidationException;
+import com.example.loanapp.model.Customer;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -20,6 +21,12 @@ public class LoanValidationService {
         validateAmount(request.getAmount());
     }
     
+    public void validateCustomerLimit(Customer customer, BigDecimal amount) {
+        if (customer.getUsedCreditLimit().add(amount).compareTo(customer.getCreditLimit()) > 0) {
+            throw new LoanValidationException("Insufficient credit limit");
+        }
+    }
+    
     private void validateInstallmentNumber(Integer numberOfInstallments) {
         if (!VALID_INSTALLMENTS.contains(numberOfInstallments)) {
             throw new LoanValidationException("Number of installments must be one of: " + VALID_INSTALLMENTS);
@@ -27,14 +34,15 @@ public class LoanValidationService {
     }
     
     private void validateInterestRate(BigDecimal interestRate) {
-        if (interestRate.compareTo(MIN_INTEREST_RATE) < 0 || 
+        if (interestRate == null ||
+            interestRate.compareTo(MIN_INTEREST_RATE) < 0 || 
             interestRate.compareTo(MAX_INTEREST_RATE) > 0) {
             throw new LoanValidationException("Interest rate must be between 0.1 and 0.5");
         }
     }
     
     private void validateAmount(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new LoanValidationException("Loan amount must be positive");
         }
     }
@@ -0,0 +1,123 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.PayLoanRequest;
+import com.example.loanapp.dto.PaymentResponse;
+import com.example.loanapp.exception.LoanValidationException;
+import com.example.loanapp.model.PaymentIdempotencyRecord;
+import com.example.loanapp.repository.PaymentIdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Component
+public class PaymentIdempotencyStore {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentIdempotencyStore.class);
+
+    private final PaymentIdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Cache<String, CachedPayment> cache;
+
+    public PaymentIdempotencyStore(PaymentIdempotencyRecordRepository recordRepository,
+                                   ObjectMapper objectMapper,
+                                   @Value("${loan.payment.idempotency.cache-size:100000}") long cacheSize,
+                                   @Value("${loan.payment.idempotency.retention:24h}") Duration retention) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    public Optional<PaymentResponse> find(PayLoanRequest request) {
+        String idempotencyKey = request.getIdempotencyKey();
+        CachedPayment cached = cache.getIfPresent(idempotencyKey);
+        if (cached == null) {
+            cached = recordRepository.findById(idempotencyKey)
+                    .map(record -> new CachedPayment(record.getLoanId(), record.getAmount(),
+                            readResponse(record.getResponse())))
+                    .orElse(null);
+            if (cached == null) {
+                return Optional.empty();
+            }
+            cache.put(idempotencyKey, cached);
+        }
+
+        if (!cached.loanId().equals(request.getLoanId())) {
+            throw new LoanValidationException("Idempotency key was already used for another loan");
+        }
+        if (request.getAmount() == null || cached.amount().compareTo(request.getAmount()) != 0) {
+            throw new LoanValidationException("Idempotency key was already used for another amount");
+        }
+        return Optional.of(cached.response());
+    }
+
+    public void record(PayLoanRequest request, PaymentResponse response) {
+        PaymentIdempotencyRecord record = new PaymentIdempotencyRecord();
+        record.setIdempotencyKey(request.getIdempotencyKey());
+        record.setLoanId(request.getLoanId());
+        record.setAmount(request.getAmount());
+        record.setResponse(writeResponse(response));
+        record.setCreatedAt(LocalDateTime.now());
+        // Flush so a concurrent duplicate fails here rather than at commit time
+        recordRepository.saveAndFlush(record);
+
+        CachedPayment cached = new CachedPayment(request.getLoanId(), request.getAmount(), response);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(request.getIdempotencyKey(), cached);
+                }
+            });
+        } else {
+            cache.put(request.getIdempotencyKey(), cached);
+        }
+    }
+
+    // Keys are honoured for as long as the cache keeps them; older records are only dead weight
+    @Scheduled(fixedDelayString = "${loan.payment.idempotency.purge-interval:PT1H}")
+    @Transactional
+    public int purgeExpired() {
+        int purged = recordRepository.deleteByCreatedAtBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            logger.info("Purged {} idempotency records older than {}", purged, retention);
+        }
+        return purged;
+    }
+
+    private String writeResponse(PaymentResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize payment response", e);
+        }
+    }
+
+    private PaymentResponse readResponse(String response) {
+        try {
+            return objectMapper.readValue(response, PaymentResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored payment response", e);
+        }
+    }
+
+    private record CachedPayment(Long loanId, BigDecimal amount, PaymentResponse response) {
+    }
+}
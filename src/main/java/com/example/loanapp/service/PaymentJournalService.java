@@ -0,0 +1,321 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.PayLoanRequest;
+import com.example.loanapp.dto.PaymentResponse;
+import com.example.loanapp.dto.PaymentStatusResponse;
+import com.example.loanapp.exception.ConcurrentUpdateException;
+import com.example.loanapp.exception.LoanValidationException;
+import com.example.loanapp.model.PaymentJournalEntry;
+import com.example.loanapp.model.PaymentJournalStatus;
+import com.example.loanapp.repository.PaymentJournalRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Accept-then-apply payments. {@link #accept} only appends the payment to the journal table, so the
+ * caller is acknowledged after a single insert. The applier drains pending entries in batches, groups
+ * them by loan and applies every group in one transaction inside the loan's payment lane, so journal
+ * and synchronous payments for the same loan never interleave. If any payment of a group fails, the
+ * whole group rolls back and its payments are applied again one per transaction, so a rejected
+ * payment never leaves partial changes behind.
+ * <p>
+ * Only a validation failure rejects a payment. After a transient failure, such as an optimistic lock
+ * conflict or a lost connection, the payment stays pending and is retried with exponential backoff
+ * until {@code loan.payment.journal.max-attempts} is reached.
+ * <p>
+ * The applier only queries the journal after a payment was accepted, while a payment waits for a
+ * retry or at startup, so an idle instance does not poll the database.
+ */
+@Service
+public class PaymentJournalService {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentJournalService.class);
+    private static final int MAX_FAILURE_REASON = 512;
+
+    private final PaymentJournalRepository journalRepository;
+    private final LoanService loanService;
+    private final PaymentIdempotencyStore idempotencyStore;
+    private final PaymentLanes paymentLanes;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final ForkJoinPool pool;
+
+    private final AtomicBoolean pending = new AtomicBoolean(true);
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    public PaymentJournalService(PaymentJournalRepository journalRepository,
+                                 LoanService loanService,
+                                 PaymentIdempotencyStore idempotencyStore,
+                                 PaymentLanes paymentLanes,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${loan.payment.journal.batch-size:500}") int batchSize,
+                                 @Value("${loan.payment.journal.parallelism:4}") int parallelism,
+                                 @Value("${loan.payment.journal.max-attempts:5}") int maxAttempts,
+                                 @Value("${loan.payment.journal.retry-backoff:PT1S}") Duration retryBackoff) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("loan.payment.journal.max-attempts must be positive, was " + maxAttempts);
+        }
+        this.journalRepository = journalRepository;
+        this.loanService = loanService;
+        this.idempotencyStore = idempotencyStore;
+        this.paymentLanes = paymentLanes;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    public PaymentStatusResponse accept(PayLoanRequest request) {
+        if (request.getLoanId() == null) {
+            throw new LoanValidationException("Loan id is required");
+        }
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new LoanValidationException("Payment amount must be positive");
+        }
+
+        String idempotencyKey = request.getIdempotencyKey();
+        boolean keyed = idempotencyKey != null && !idempotencyKey.isBlank();
+        if (keyed) {
+            Optional<PaymentJournalEntry> previous = journalRepository.findByIdempotencyKey(idempotencyKey);
+            if (previous.isPresent()) {
+                return toResponse(samePayment(previous.get(), request));
+            }
+        }
+
+        PaymentJournalEntry entry = new PaymentJournalEntry();
+        entry.setLoanId(request.getLoanId());
+        entry.setAmount(request.getAmount());
+        entry.setIdempotencyKey(keyed ? idempotencyKey : null);
+        entry.setStatus(PaymentJournalStatus.PENDING);
+        entry.setAcceptedAt(LocalDateTime.now());
+        entry.setNextAttemptAt(entry.getAcceptedAt());
+        try {
+            entry = journalRepository.save(entry);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent retry with the same key was journaled first
+            return journalRepository.findByIdempotencyKey(idempotencyKey)
+                    .map(previous -> toResponse(samePayment(previous, request)))
+                    .orElseThrow(() -> e);
+        }
+        pending.set(true);
+        return toResponse(entry);
+    }
+
+    public PaymentStatusResponse getStatus(Long paymentId) {
+        return journalRepository.findById(paymentId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new LoanValidationException("Payment not found"));
+    }
+
+    @Scheduled(fixedDelayString = "${loan.payment.journal.poll-interval:PT0.1S}")
+    public void drainScheduled() {
+        if (pending.get()) {
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                pending.set(true);
+                logger.error("Payment journal drain failed, retrying on the next run", e);
+            }
+        }
+    }
+
+    /**
+     * Applies pending journal entries until none are left and returns how many were processed.
+     */
+    public int drain() {
+        drainLock.lock();
+        try {
+            int processed = 0;
+            int fetched;
+            do {
+                // Cleared before reading so a payment accepted during the pass triggers another one
+                pending.set(false);
+                List<PaymentJournalEntry> batch = journalRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                        PaymentJournalStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+                fetched = batch.size();
+                processed += applyBatch(batch);
+            } while (fetched == batchSize);
+            return processed;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private int applyBatch(List<PaymentJournalEntry> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<Long>> idsByLoan = new LinkedHashMap<>();
+        for (PaymentJournalEntry entry : batch) {
+            idsByLoan.computeIfAbsent(entry.getLoanId(), loanId -> new ArrayList<>()).add(entry.getId());
+        }
+        if (idsByLoan.size() == 1 || pool == null) {
+            int applied = 0;
+            for (Map.Entry<Long, List<Long>> group : idsByLoan.entrySet()) {
+                applied += applyGroupSafely(group.getKey(), group.getValue());
+            }
+            return applied;
+        }
+
+        try {
+            List<Future<Integer>> groups = new ArrayList<>();
+            for (Map.Entry<Long, List<Long>> group : idsByLoan.entrySet()) {
+                groups.add(pool.submit(() -> applyGroupSafely(group.getKey(), group.getValue())));
+            }
+            int applied = 0;
+            for (Future<Integer> group : groups) {
+                applied += group.get();
+            }
+            return applied;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payment journal drain was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Payment journal drain failed", e.getCause());
+        }
+    }
+
+    private int applyGroupSafely(Long loanId, List<Long> paymentIds) {
+        try {
+            return applyGroup(loanId, paymentIds);
+        } catch (RuntimeException e) {
+            if (paymentIds.size() == 1) {
+                if (isRejection(e)) {
+                    reject(paymentIds.get(0), e);
+                } else {
+                    logger.warn("Payment {} for loan {} failed", paymentIds.get(0), loanId, e);
+                    retryLater(paymentIds.get(0), e);
+                }
+                return 1;
+            }
+            // One payment broke the group transaction; isolate it by applying the rest one at a time
+            logger.warn("Payment group for loan {} failed, retrying its {} payments individually",
+                    loanId, paymentIds.size(), e);
+            int applied = 0;
+            for (Long paymentId : paymentIds) {
+                applied += applyGroupSafely(loanId, List.of(paymentId));
+            }
+            return applied;
+        }
+    }
+
+    private int applyGroup(Long loanId, List<Long> paymentIds) {
+        return paymentLanes.run(loanId, () -> transactionTemplate.execute(status -> {
+            List<PaymentJournalEntry> entries = journalRepository.findByIdInAndStatusOrderByIdAsc(
+                    paymentIds, PaymentJournalStatus.PENDING);
+            for (PaymentJournalEntry entry : entries) {
+                apply(entry);
+            }
+            return entries.size();
+        }));
+    }
+
+    private void apply(PaymentJournalEntry entry) {
+        PayLoanRequest request = new PayLoanRequest();
+        request.setLoanId(entry.getLoanId());
+        request.setAmount(entry.getAmount());
+        request.setIdempotencyKey(entry.getIdempotencyKey());
+        // A rejection propagates and rolls back the group; the payment is then rejected on its own
+        Optional<PaymentResponse> previous = entry.getIdempotencyKey() == null
+                ? Optional.empty()
+                : idempotencyStore.find(request);
+        PaymentResponse response = previous.orElseGet(() -> loanService.payLoan(request));
+        entry.setStatus(PaymentJournalStatus.APPLIED);
+        entry.setPaidInstallments(response.getPaidInstallments());
+        entry.setTotalPaidAmount(response.getTotalPaidAmount());
+        entry.setLoanFullyPaid(response.isLoanFullyPaid());
+        entry.setAppliedAt(LocalDateTime.now());
+    }
+
+    private boolean isRejection(RuntimeException failure) {
+        return failure instanceof LoanValidationException && !(failure instanceof ConcurrentUpdateException);
+    }
+
+    private void reject(Long paymentId, RuntimeException failure) {
+        transactionTemplate.executeWithoutResult(status -> journalRepository.findById(paymentId)
+                .filter(entry -> entry.getStatus() == PaymentJournalStatus.PENDING)
+                .ifPresent(entry -> markRejected(entry, failure)));
+    }
+
+    private void retryLater(Long paymentId, RuntimeException failure) {
+        transactionTemplate.executeWithoutResult(status -> journalRepository.findById(paymentId)
+                .filter(entry -> entry.getStatus() == PaymentJournalStatus.PENDING)
+                .ifPresent(entry -> {
+                    int attempts = entry.getAttempts() + 1;
+                    entry.setAttempts(attempts);
+                    entry.setFailureReason(truncate(String.valueOf(failure.getMessage())));
+                    if (attempts >= maxAttempts) {
+                        markRejected(entry, failure);
+                        return;
+                    }
+                    // Doubles per attempt: with the defaults 1s, 2s, 4s and 8s
+                    Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+                    entry.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+                }));
+        pending.set(true);
+    }
+
+    private void markRejected(PaymentJournalEntry entry, RuntimeException failure) {
+        entry.setStatus(PaymentJournalStatus.REJECTED);
+        entry.setFailureReason(truncate(String.valueOf(failure.getMessage())));
+        entry.setAppliedAt(LocalDateTime.now());
+    }
+
+    private PaymentJournalEntry samePayment(PaymentJournalEntry entry, PayLoanRequest request) {
+        if (!entry.getLoanId().equals(request.getLoanId())) {
+            throw new LoanValidationException("Idempotency key was already used for another loan");
+        }
+        if (entry.getAmount().compareTo(request.getAmount()) != 0) {
+            throw new LoanValidationException("Idempotency key was already used for another amount");
+        }
+        return entry;
+    }
+
+    private String truncate(String message) {
+        return message.length() <= MAX_FAILURE_REASON ? message : message.substring(0, MAX_FAILURE_REASON);
+    }
+
+    private PaymentStatusResponse toResponse(PaymentJournalEntry entry) {
+        return PaymentStatusResponse.builder()
+                .paymentId(entry.getId())
+                .loanId(entry.getLoanId())
+                .amount(entry.getAmount())
+                .status(entry.getStatus())
+                .acceptedAt(entry.getAcceptedAt())
+                .appliedAt(entry.getAppliedAt())
+                .paidInstallments(entry.getPaidInstallments())
+                .totalPaidAmount(entry.getTotalPaidAmount())
+                .loanFullyPaid(entry.getLoanFullyPaid())
+                .failureReason(entry.getFailureReason())
+                .build();
+    }
+}
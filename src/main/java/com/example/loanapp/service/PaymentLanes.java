@@ -0,0 +1,37 @@
+package com.example.loanapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer lanes for loan payments. Every loan maps onto one fair lock, so payments for the
+ * same loan are applied one at a time in arrival order while different loans run in parallel.
+ * Callers must enter the lane outside of any transaction so the lock is held until commit.
+ */
+@Component
+public class PaymentLanes {
+    private final ReentrantLock[] lanes;
+
+    public PaymentLanes(@Value("${loan.payment.lanes:256}") int laneCount) {
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("loan.payment.lanes must be positive, was " + laneCount);
+        }
+        lanes = new ReentrantLock[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new ReentrantLock(true);
+        }
+    }
+
+    public <T> T run(Long loanId, Supplier<T> payment) {
+        ReentrantLock lane = lanes[Math.floorMod(Long.hashCode(loanId), lanes.length)];
+        lane.lock();
+        try {
+            return payment.get();
+        } finally {
+            lane.unlock();
+        }
+    }
+}
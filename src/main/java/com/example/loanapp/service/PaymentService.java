@@ -3,8 +3,10 @@ package com.example.loanapp.service;
 import com.example.loanapp.dto.DetailedPaymentResponse;
 import com.example.loanapp.dto.InstallmentPaymentDetail;
 import com.example.loanapp.dto.PaymentCalculation;
+import com.example.loanapp.model.Loan;
 import com.example.loanapp.model.LoanInstallment;
 import com.example.loanapp.repository.LoanInstallmentRepository;
+import com.example.loanapp.util.MoneyMath;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,97 +23,90 @@ import java.util.List;
 @Transactional
 public class PaymentService {
     private final LoanInstallmentRepository installmentRepository;
+    private final LoanMetrics loanMetrics;
     
     public PaymentCalculation calculatePayment(LoanInstallment installment, LocalDate paymentDate) {
         long daysDifference = ChronoUnit.DAYS.between(paymentDate, installment.getDueDate());
-        BigDecimal adjustedAmount = installment.getAmount();
-        
-        if (daysDifference > 0) {
-            // Early payment discount
-            BigDecimal discount = calculateEarlyPaymentDiscount(installment.getAmount(), daysDifference);
-            adjustedAmount = adjustedAmount.subtract(discount);
-        } else if (daysDifference < 0) {
-            // Late payment penalty
-            BigDecimal penalty = calculateLatePaymentPenalty(installment.getAmount(), Math.abs(daysDifference));
-            adjustedAmount = adjustedAmount.add(penalty);
-        }
-        
-        return new PaymentCalculation(adjustedAmount, daysDifference);
+        // Early payment discount when positive, late payment penalty when negative
+        long adjustedAmount = MoneyMath.adjustForPaymentDay(MoneyMath.toMinor(installment.getAmount()), daysDifference);
+        return new PaymentCalculation(MoneyMath.toDecimal(adjustedAmount), daysDifference);
     }
     
-    public DetailedPaymentResponse processPayment(List<LoanInstallment> installments, BigDecimal paymentAmount) {
-        BigDecimal remainingAmount = paymentAmount;
+    /**
+     * Pays {@code payableInstallments} in order with {@code paymentAmount}, stopping at the first one
+     * the remaining amount cannot cover. Each installment is charged its original amount and its paid
+     * amount records the early discount or late penalty; the changed installments are saved together.
+     */
+    public DetailedPaymentResponse processPayment(Loan loan, List<LoanInstallment> payableInstallments,
+                                                  BigDecimal paymentAmount) {
+        return loanMetrics.record("process_payment",
+                operation -> settleInstallments(loan, payableInstallments, paymentAmount, operation));
+    }
+
+    private DetailedPaymentResponse settleInstallments(Loan loan, List<LoanInstallment> payableInstallments,
+                                                       BigDecimal paymentAmount, LoanMetrics.Operation operation) {
+        Integer tenor = loan.getNumberOfInstallments();
+        operation.tenor(tenor);
+        long remainingAmount = MoneyMath.toMinorRoundedDown(paymentAmount);
+        long totalPaidAmount = 0;
+        long totalDiscount = 0;
+        long totalPenalty = 0;
+        List<LoanInstallment> paidInstallments = new ArrayList<>();
         List<InstallmentPaymentDetail> paymentDetails = new ArrayList<>();
-        BigDecimal totalDiscount = BigDecimal.ZERO;
-        BigDecimal totalPenalty = BigDecimal.ZERO;
-        int paidCount = 0;
-        
-        for (LoanInstallment installment : installments) {
-            if (remainingAmount.compareTo(BigDecimal.ZERO) <= 0) break;
-            
-            PaymentCalculation calculation = calculatePayment(installment, LocalDate.now());
-            
-            if (remainingAmount.compareTo(calculation.getAdjustedAmount()) >= 0) {
-                // Pay installment
-                installment.setPaid(true);
-                installment.setPaidAmount(calculation.getAdjustedAmount());
-                installment.setPaymentDate(LocalDate.now());
-                installmentRepository.save(installment);
-                
-                // Update statistics
-                remainingAmount = remainingAmount.subtract(calculation.getAdjustedAmount());
-                paidCount++;
-                
-                if (calculation.getDaysDifference() > 0) {
-                    totalDiscount = totalDiscount.add(
-                        installment.getAmount().subtract(calculation.getAdjustedAmount())
-                    );
-                } else if (calculation.getDaysDifference() < 0) {
-                    totalPenalty = totalPenalty.add(
-                        calculation.getAdjustedAmount().subtract(installment.getAmount())
-                    );
-                }
-                
-                // Add payment details
-                paymentDetails.add(createPaymentDetail(installment, calculation));
+        LocalDate today = LocalDate.now();
+
+        for (LoanInstallment installment : payableInstallments) {
+            long originalAmount = MoneyMath.toMinor(installment.getAmount());
+            if (remainingAmount < originalAmount) {
+                break;
             }
+
+            long daysDifference = ChronoUnit.DAYS.between(today, installment.getDueDate());
+            // Early payment discount when positive, late payment penalty when negative
+            long adjustedAmount = MoneyMath.adjustForPaymentDay(originalAmount, daysDifference);
+
+            installment.setPaid(true);
+            installment.setPaidAmount(MoneyMath.toDecimal(adjustedAmount));
+            installment.setPaymentDate(today);
+            paidInstallments.add(installment);
+
+            remainingAmount -= originalAmount;
+            totalPaidAmount += originalAmount;
+            totalDiscount += Math.max(originalAmount - adjustedAmount, 0);
+            totalPenalty += Math.max(adjustedAmount - originalAmount, 0);
+            paymentDetails.add(createPaymentDetail(installment, originalAmount, adjustedAmount, daysDifference));
         }
-        
+
+        // One call for all changed installments; Hibernate sends the updates as a single JDBC batch
+        installmentRepository.saveAll(paidInstallments);
+        loanMetrics.recordPayment(tenor, paidInstallments.size(), totalDiscount, totalPenalty);
+
         return DetailedPaymentResponse.builder()
-                .paidInstallments(paidCount)
-                .totalPaidAmount(paymentAmount.subtract(remainingAmount))
-                .totalDiscount(totalDiscount)
-                .totalPenalty(totalPenalty)
-                .isLoanFullyPaid(isAllInstallmentsPaid(installments))
+                .paidInstallments(paidInstallments.size())
+                .totalPaidAmount(MoneyMath.toDecimal(totalPaidAmount))
+                .totalDiscount(MoneyMath.toDecimal(totalDiscount))
+                .totalPenalty(MoneyMath.toDecimal(totalPenalty))
+                .isLoanFullyPaid(isAllInstallmentsPaid(loan.getInstallments()))
                 .paidInstallmentDetails(paymentDetails)
-                .remainingDebt(calculateRemainingDebt(installments))
+                .remainingDebt(calculateRemainingDebt(loan.getInstallments()))
                 .paymentDate(LocalDateTime.now())
-                .paymentStatus(generatePaymentStatus(paidCount))
+                .paymentStatus(generatePaymentStatus(paidInstallments.size()))
                 .build();
     }
     
-    private BigDecimal calculateEarlyPaymentDiscount(BigDecimal amount, long days) {
-        return amount.multiply(new BigDecimal("0.001"))
-                    .multiply(BigDecimal.valueOf(days));
-    }
-    
-    private BigDecimal calculateLatePaymentPenalty(BigDecimal amount, long days) {
-        return amount.multiply(new BigDecimal("0.001"))
-                    .multiply(BigDecimal.valueOf(days));
-    }
-    
-    private InstallmentPaymentDetail createPaymentDetail(LoanInstallment installment, PaymentCalculation calculation) {
+    private InstallmentPaymentDetail createPaymentDetail(LoanInstallment installment, long originalAmount,
+                                                         long adjustedAmount, long daysDifference) {
         return InstallmentPaymentDetail.builder()
                 .installmentId(installment.getId())
                 .dueDate(installment.getDueDate())
                 .originalAmount(installment.getAmount())
-                .paidAmount(calculation.getAdjustedAmount())
-                .wasLate(calculation.getDaysDifference() < 0)
-                .lateFee(calculation.getDaysDifference() < 0 ? 
-                    calculation.getAdjustedAmount().subtract(installment.getAmount()) : 
+                .paidAmount(MoneyMath.toDecimal(adjustedAmount))
+                .wasLate(daysDifference < 0)
+                .lateFee(daysDifference < 0 ? 
+                    MoneyMath.toDecimal(adjustedAmount - originalAmount) : 
                     BigDecimal.ZERO)
-                .earlyPaymentDiscount(calculation.getDaysDifference() > 0 ? 
-                    installment.getAmount().subtract(calculation.getAdjustedAmount()) : 
+                .earlyPaymentDiscount(daysDifference > 0 ? 
+                    MoneyMath.toDecimal(originalAmount - adjustedAmount) : 
                     BigDecimal.ZERO)
                 .build();
     }
@@ -121,10 +116,13 @@ public class PaymentService {
     }
     
     private BigDecimal calculateRemainingDebt(List<LoanInstallment> installments) {
-        return installments.stream()
-                .filter(i -> !i.isPaid())
-                .map(LoanInstallment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long remainingDebt = 0;
+        for (LoanInstallment installment : installments) {
+            if (!installment.isPaid()) {
+                remainingDebt += MoneyMath.toMinor(installment.getAmount());
+            }
+        }
+        return MoneyMath.toDecimal(remainingDebt);
     }
     
     private String generatePaymentStatus(int paidCount) {
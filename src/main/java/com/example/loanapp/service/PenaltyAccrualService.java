@@ -0,0 +1,200 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.PenaltyAccrualReport;
+import com.example.loanapp.model.PenaltyAccrual;
+import com.example.loanapp.repository.LoanIdRange;
+import com.example.loanapp.repository.LoanInstallmentRepository;
+import com.example.loanapp.repository.OverdueInstallment;
+import com.example.loanapp.repository.PenaltyAccrualRepository;
+import com.example.loanapp.util.MoneyMath;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Accrues late penalties of overdue installments into daily {@link PenaltyAccrual} snapshots.
+ * The loan id range of overdue installments and of the day's existing snapshots is split into
+ * partitions that are swept in parallel. Each partition replaces its snapshots for the day in one
+ * transaction, so a re-run never leaves stale or half-written rows behind. Runs are serialized.
+ */
+@Service
+public class PenaltyAccrualService {
+    private static final Logger logger = LoggerFactory.getLogger(PenaltyAccrualService.class);
+
+    private final LoanInstallmentRepository installmentRepository;
+    private final PenaltyAccrualRepository penaltyAccrualRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int pageSize;
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PenaltyAccrualService(LoanInstallmentRepository installmentRepository,
+                                 PenaltyAccrualRepository penaltyAccrualRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${loan.penalty.parallelism:4}") int parallelism,
+                                 @Value("${loan.penalty.page-size:500}") int pageSize) {
+        this.installmentRepository = installmentRepository;
+        this.penaltyAccrualRepository = penaltyAccrualRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.parallelism = parallelism;
+        this.pageSize = pageSize;
+    }
+
+    @Scheduled(cron = "${loan.penalty.accrual-cron:0 0 1 * * *}")
+    public void accrueNightly() {
+        // A manual run already in progress covers the night's run
+        if (runLock.tryLock()) {
+            try {
+                accrueDay(LocalDate.now());
+            } finally {
+                runLock.unlock();
+            }
+        }
+    }
+
+    public PenaltyAccrualReport accrue(LocalDate accrualDate) {
+        runLock.lock();
+        try {
+            return accrueDay(accrualDate);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private PenaltyAccrualReport accrueDay(LocalDate accrualDate) {
+        long startNanos = System.nanoTime();
+        // Loans that were overdue on an earlier run of the day still have snapshots to remove
+        LoanIdRange overdue = installmentRepository.findOverdueLoanIdRange(accrualDate);
+        LoanIdRange accrued = penaltyAccrualRepository.findLoanIdRangeByAccrualDate(accrualDate);
+
+        List<LoanIdRange> ranges = Stream.of(overdue, accrued)
+                .filter(range -> range != null && range.getMinLoanId() != null)
+                .toList();
+
+        List<Callable<PartitionResult>> partitions = new ArrayList<>();
+        if (!ranges.isEmpty()) {
+            long min = ranges.stream().mapToLong(LoanIdRange::getMinLoanId).min().getAsLong();
+            long max = ranges.stream().mapToLong(LoanIdRange::getMaxLoanId).max().getAsLong();
+            // More partitions than threads so an uneven spread of overdue loans still balances
+            int partitionCount = (int) Math.min(parallelism * 4L, max - min + 1);
+            long span = (max - min + partitionCount) / partitionCount;
+            for (long from = min; from <= max; from += span) {
+                long fromLoanId = from;
+                long toLoanId = Math.min(from + span - 1, max);
+                partitions.add(() -> accruePartition(accrualDate, fromLoanId, toLoanId));
+            }
+        }
+
+        PartitionResult total = new PartitionResult(0, 0, 0);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Future<PartitionResult> partition : pool.invokeAll(partitions)) {
+                total = total.plus(partition.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Penalty accrual was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Penalty accrual failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        PenaltyAccrualReport report = PenaltyAccrualReport.builder()
+                .accrualDate(accrualDate)
+                .overdueInstallments(total.rows())
+                .overdueAmount(MoneyMath.toDecimal(total.overdueAmount()))
+                .accruedPenalty(MoneyMath.toDecimal(total.penalty()))
+                .partitions(partitions.size())
+                .wallTimeMillis(elapsedNanos / 1_000_000)
+                .rowsPerSecond(Math.round(total.rows() / Math.max(elapsedNanos / 1_000_000_000.0, 1e-9)))
+                .build();
+        logger.info("Accrued penalties for {}: {} installments in {} partitions, {} ms, {} rows/s",
+                accrualDate, report.getOverdueInstallments(), report.getPartitions(),
+                report.getWallTimeMillis(), report.getRowsPerSecond());
+        return report;
+    }
+
+    private PartitionResult accruePartition(LocalDate accrualDate, long fromLoanId, long toLoanId) {
+        return transactionTemplate.execute(status -> {
+            penaltyAccrualRepository.deleteByAccrualDateAndLoanIdBetween(accrualDate, fromLoanId, toLoanId);
+
+            PartitionResult result = new PartitionResult(0, 0, 0);
+            long afterId = 0L;
+            while (true) {
+                PageResult page = accruePage(accrualDate, fromLoanId, toLoanId, afterId);
+                if (page.result().rows() == 0) {
+                    return result;
+                }
+                result = result.plus(page.result());
+                afterId = page.lastInstallmentId();
+                // One transaction per partition; keep its persistence context to a single page
+                entityManager.flush();
+                entityManager.clear();
+            }
+        });
+    }
+
+    private PageResult accruePage(LocalDate accrualDate, long fromLoanId, long toLoanId, long afterId) {
+        List<OverdueInstallment> overdue = installmentRepository.findOverdueInLoanRange(
+                accrualDate, fromLoanId, toLoanId, afterId, PageRequest.of(0, pageSize));
+        if (overdue.isEmpty()) {
+            return new PageResult(new PartitionResult(0, 0, 0), afterId);
+        }
+
+        long overdueAmount = 0;
+        long penalty = 0;
+        List<PenaltyAccrual> accruals = new ArrayList<>(overdue.size());
+        for (OverdueInstallment installment : overdue) {
+            long amount = MoneyMath.toMinor(installment.amount());
+            long daysOverdue = ChronoUnit.DAYS.between(installment.dueDate(), accrualDate);
+            long accruedPenalty = MoneyMath.perDayCharge(amount, daysOverdue);
+            overdueAmount += amount;
+            penalty += accruedPenalty;
+
+            accruals.add(PenaltyAccrual.builder()
+                    .accrualDate(accrualDate)
+                    .loanId(installment.loanId())
+                    .installmentId(installment.id())
+                    .installmentAmount(installment.amount())
+                    .dueDate(installment.dueDate())
+                    .daysOverdue(daysOverdue)
+                    .accruedPenalty(MoneyMath.toDecimal(accruedPenalty))
+                    .build());
+        }
+        penaltyAccrualRepository.saveAll(accruals);
+
+        return new PageResult(new PartitionResult(overdue.size(), overdueAmount, penalty),
+                overdue.get(overdue.size() - 1).id());
+    }
+
+    private record PartitionResult(long rows, long overdueAmount, long penalty) {
+        PartitionResult plus(PartitionResult other) {
+            return new PartitionResult(rows + other.rows, overdueAmount + other.overdueAmount, penalty + other.penalty);
+        }
+    }
+
+    private record PageResult(PartitionResult result, long lastInstallmentId) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.util.MoneyMath;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Monthly rate {@code annualRate / 12}, kept as an exact fraction so interest on a balance is one
+ * multiply and one rounding division in {@code long}.
+ */
+record PeriodicRate(BigDecimal annualRate, long numerator, long denominator, BigDecimal value) {
+    private static final int PERIODS_PER_YEAR = 12;
+    private static final Cache<BigDecimal, PeriodicRate> RATES = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .build();
+
+    static PeriodicRate of(BigDecimal annualRate) {
+        return RATES.get(annualRate.stripTrailingZeros(), PeriodicRate::compute);
+    }
+
+    private static PeriodicRate compute(BigDecimal annualRate) {
+        BigDecimal value = annualRate.divide(BigDecimal.valueOf(PERIODS_PER_YEAR), MathContext.DECIMAL128);
+        try {
+            BigDecimal scaled = annualRate.scale() < 0 ? annualRate.setScale(0) : annualRate;
+            long denominator = Math.multiplyExact(BigDecimal.TEN.pow(scaled.scale()).longValueExact(), PERIODS_PER_YEAR);
+            return new PeriodicRate(annualRate, scaled.unscaledValue().longValueExact(), denominator, value);
+        } catch (ArithmeticException e) {
+            // Too precise for a long fraction; interest falls back to BigDecimal
+            return new PeriodicRate(annualRate, 0, 0, value);
+        }
+    }
+
+    long interestOn(long balanceMinor) {
+        if (denominator != 0) {
+            try {
+                return MoneyMath.divideHalfUp(Math.multiplyExact(balanceMinor, numerator), denominator);
+            } catch (ArithmeticException e) {
+                // fall through to BigDecimal
+            }
+        }
+        return MoneyMath.toMinorRounded(MoneyMath.toDecimal(balanceMinor)
+                .multiply(annualRate)
+                .divide(BigDecimal.valueOf(PERIODS_PER_YEAR), MoneyMath.SCALE, RoundingMode.HALF_UP));
+    }
+}
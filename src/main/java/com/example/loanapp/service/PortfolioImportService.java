@@ -0,0 +1,402 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.CreateLoanRequest;
+import com.example.loanapp.dto.PortfolioImportReport;
+import com.example.loanapp.exception.LoanValidationException;
+import com.example.loanapp.model.Customer;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.model.LoanInstallment;
+import com.example.loanapp.repository.CustomerRepository;
+import com.example.loanapp.repository.LoanInstallmentRepository;
+import com.example.loanapp.repository.LoanRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Imports a legacy book from CSV. Customers and loans are read in chunks; each chunk is parsed and
+ * validated in parallel while the previous one is written in a single batched transaction. Rows are
+ * <pre>
+ * CUSTOMER,&lt;ref&gt;,&lt;name&gt;,&lt;surname&gt;,&lt;credit limit&gt;[,&lt;used credit limit&gt;]
+ * LOAN,&lt;customer ref&gt;,&lt;amount&gt;,&lt;interest rate&gt;,&lt;installments&gt;,&lt;create date&gt;,&lt;paid installments&gt;
+ * </pre>
+ * and a customer must appear before its loans. Invalid rows are written to a rejects file with their
+ * line number and reason.
+ */
+@Service
+public class PortfolioImportService {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioImportService.class);
+    private static final String CUSTOMER = "CUSTOMER";
+    private static final String LOAN = "LOAN";
+
+    private final CustomerRepository customerRepository;
+    private final LoanRepository loanRepository;
+    private final LoanInstallmentRepository installmentRepository;
+    private final LoanFactory loanFactory;
+    private final LoanValidationService loanValidationService;
+    private final LoanBalanceService loanBalanceService;
+    private final LoanMetrics loanMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Path rejectsDir;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PortfolioImportService(CustomerRepository customerRepository,
+                                  LoanRepository loanRepository,
+                                  LoanInstallmentRepository installmentRepository,
+                                  LoanFactory loanFactory,
+                                  LoanValidationService loanValidationService,
+                                  LoanBalanceService loanBalanceService,
+                                  LoanMetrics loanMetrics,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${loan.import.chunk-size:5000}") int chunkSize,
+                                  @Value("${loan.import.parallelism:4}") int parallelism,
+                                  @Value("${loan.import.rejects-dir:${java.io.tmpdir}}") Path rejectsDir) {
+        this.customerRepository = customerRepository;
+        this.loanRepository = loanRepository;
+        this.installmentRepository = installmentRepository;
+        this.loanFactory = loanFactory;
+        this.loanValidationService = loanValidationService;
+        this.loanBalanceService = loanBalanceService;
+        this.loanMetrics = loanMetrics;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.rejectsDir = rejectsDir;
+    }
+
+    public PortfolioImportReport importPortfolio(InputStream input) throws IOException {
+        long startNanos = System.nanoTime();
+        Path rejectsFile = rejectsDir.resolve("import-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS")) + "-rejects.csv");
+        Progress progress = new Progress();
+        // Legacy customer reference to id for every customer committed so far
+        Map<String, Long> customerIds = new HashMap<>();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+             Writer rejects = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8)) {
+            rejects.write("line,reason,row\n");
+
+            // Parse the next chunk while the current one is written
+            Future<List<ImportRow>> pending = parseChunk(pool, readChunk(reader, progress));
+            while (pending != null) {
+                List<ImportRow> rows = await(pending);
+                List<RawLine> next = readChunk(reader, progress);
+                pending = next.isEmpty() ? null : parseChunk(pool, next);
+
+                writeChunk(rows, customerIds, progress);
+                for (ImportRow row : rows) {
+                    if (row.error != null) {
+                        rejects.write(row.line.number + "," + quote(row.error) + "," + row.line.text + "\n");
+                    }
+                }
+                logger.info("Import progress: {} rows read, {} customers, {} loans, {} rejected",
+                        progress.rowsRead, progress.customers, progress.loans, progress.rejected);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        if (progress.rejected == 0) {
+            Files.deleteIfExists(rejectsFile);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        return PortfolioImportReport.builder()
+                .rowsRead(progress.rowsRead)
+                .customersImported(progress.customers)
+                .loansImported(progress.loans)
+                .rejected(progress.rejected)
+                .rejectsFile(progress.rejected == 0 ? null : rejectsFile.toString())
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .rowsPerSecond(elapsedNanos > 0 ? progress.rowsRead * 1_000_000_000L / elapsedNanos : 0)
+                .build();
+    }
+
+    private List<RawLine> readChunk(BufferedReader reader, Progress progress) throws IOException {
+        List<RawLine> lines = new ArrayList<>(chunkSize);
+        String text;
+        while (lines.size() < chunkSize && (text = reader.readLine()) != null) {
+            progress.lineNumber++;
+            if (text.isBlank() || text.startsWith("#")) {
+                continue;
+            }
+            lines.add(new RawLine(progress.lineNumber, text));
+        }
+        progress.rowsRead += lines.size();
+        return lines;
+    }
+
+    private Future<List<ImportRow>> parseChunk(ForkJoinPool pool, List<RawLine> lines) {
+        if (lines.isEmpty()) {
+            return null;
+        }
+        return pool.submit(() -> lines.parallelStream().map(this::parse).toList());
+    }
+
+    private ImportRow parse(RawLine line) {
+        ImportRow row = new ImportRow(line);
+        String[] columns = line.text.split(",", -1);
+        try {
+            switch (columns[0].trim()) {
+                case CUSTOMER -> parseCustomer(row, columns);
+                case LOAN -> parseLoan(row, columns);
+                default -> throw new LoanValidationException("Unknown row type: " + columns[0].trim());
+            }
+        } catch (LoanValidationException e) {
+            row.error = e.getMessage();
+        } catch (NumberFormatException e) {
+            row.error = "Invalid number";
+        } catch (DateTimeParseException e) {
+            row.error = "Invalid create date";
+        } catch (ArithmeticException e) {
+            row.error = "Amount is out of range";
+        }
+        return row;
+    }
+
+    private void parseCustomer(ImportRow row, String[] columns) {
+        if (columns.length != 5 && columns.length != 6) {
+            throw new LoanValidationException("Customer rows have 5 or 6 columns");
+        }
+        row.type = CUSTOMER;
+        row.customerRef = required(columns[1], "Customer reference");
+        row.name = required(columns[2], "Name");
+        row.surname = required(columns[3], "Surname");
+        row.creditLimit = new BigDecimal(columns[4].trim());
+        row.usedCreditLimit = columns.length == 6 && !columns[5].isBlank()
+                ? new BigDecimal(columns[5].trim())
+                : BigDecimal.ZERO;
+        if (row.creditLimit.signum() <= 0) {
+            throw new LoanValidationException("Credit limit must be positive");
+        }
+        if (row.usedCreditLimit.signum() < 0 || row.usedCreditLimit.compareTo(row.creditLimit) > 0) {
+            throw new LoanValidationException("Used credit limit must be between 0 and the credit limit");
+        }
+    }
+
+    private void parseLoan(ImportRow row, String[] columns) {
+        if (columns.length != 7) {
+            throw new LoanValidationException("Loan rows have 7 columns");
+        }
+        row.type = LOAN;
+        row.customerRef = required(columns[1], "Customer reference");
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setAmount(new BigDecimal(columns[2].trim()));
+        request.setInterestRate(new BigDecimal(columns[3].trim()));
+        request.setNumberOfInstallments(Integer.valueOf(columns[4].trim()));
+        loanValidationService.validateLoanRequest(request);
+        // Builds the schedule once so a loan whose amounts overflow is rejected here, not in the write
+        loanFactory.schedule(request);
+        row.loanRequest = request;
+        row.createDate = LocalDate.parse(columns[5].trim());
+        row.paidInstallments = Integer.parseInt(columns[6].trim());
+        if (row.createDate.isAfter(LocalDate.now())) {
+            throw new LoanValidationException("Create date cannot be in the future");
+        }
+        if (row.paidInstallments < 0 || row.paidInstallments > request.getNumberOfInstallments()) {
+            throw new LoanValidationException("Paid installments must be between 0 and the number of installments");
+        }
+    }
+
+    private void writeChunk(List<ImportRow> rows, Map<String, Long> customerIds, Progress progress) {
+        Map<String, Customer> chunkCustomers = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                persistChunk(rows, customerIds, chunkCustomers);
+                // The import may run inside an open-in-view EntityManager; keep it from growing
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            logger.error("Import chunk starting at line {} failed", rows.get(0).line.number, e);
+            chunkCustomers.clear();
+            for (ImportRow row : rows) {
+                if (row.error == null) {
+                    row.error = "Chunk failed: " + e.getMessage();
+                }
+            }
+        }
+        chunkCustomers.forEach((ref, customer) -> customerIds.put(ref, customer.getId()));
+
+        Map<String, Long> counts = new HashMap<>();
+        for (ImportRow row : rows) {
+            if (row.error != null) {
+                progress.rejected++;
+            } else if (CUSTOMER.equals(row.type)) {
+                progress.customers++;
+            } else {
+                progress.loans++;
+            }
+            String type = row.type == null ? "unknown" : row.type.toLowerCase(Locale.ROOT);
+            counts.merge(type + ":" + (row.error == null ? "imported" : "rejected"), 1L, Long::sum);
+        }
+        counts.forEach((key, count) -> {
+            String[] tags = key.split(":");
+            loanMetrics.recordImport(tags[0], tags[1], count);
+        });
+    }
+
+    private void persistChunk(List<ImportRow> rows, Map<String, Long> customerIds, Map<String, Customer> chunkCustomers) {
+        Set<Long> knownCustomerIds = new HashSet<>();
+        for (ImportRow row : rows) {
+            if (row.error == null && LOAN.equals(row.type) && customerIds.containsKey(row.customerRef)) {
+                knownCustomerIds.add(customerIds.get(row.customerRef));
+            }
+        }
+        Map<Long, Customer> knownCustomers = new HashMap<>();
+        customerRepository.findAllById(knownCustomerIds).forEach(c -> knownCustomers.put(c.getId(), c));
+
+        List<Customer> newCustomers = new ArrayList<>();
+        List<Loan> loans = new ArrayList<>();
+        List<LoanInstallment> installments = new ArrayList<>();
+        for (ImportRow row : rows) {
+            if (row.error != null) {
+                continue;
+            }
+            try {
+                if (CUSTOMER.equals(row.type)) {
+                    if (customerIds.containsKey(row.customerRef) || chunkCustomers.containsKey(row.customerRef)) {
+                        throw new LoanValidationException("Duplicate customer reference: " + row.customerRef);
+                    }
+                    Customer customer = new Customer();
+                    customer.setName(row.name);
+                    customer.setSurname(row.surname);
+                    customer.setCreditLimit(row.creditLimit);
+                    customer.setUsedCreditLimit(row.usedCreditLimit);
+                    newCustomers.add(customer);
+                    chunkCustomers.put(row.customerRef, customer);
+                } else {
+                    Customer customer = chunkCustomers.get(row.customerRef);
+                    if (customer == null) {
+                        customer = knownCustomers.get(customerIds.get(row.customerRef));
+                    }
+                    if (customer == null) {
+                        throw new LoanValidationException("Unknown customer reference: " + row.customerRef);
+                    }
+                    addLoan(row, customer, loans, installments);
+                }
+            } catch (LoanValidationException e) {
+                row.error = e.getMessage();
+            } catch (RuntimeException e) {
+                // Nothing a row runs here joins the chunk transaction, so only this row is rejected
+                logger.warn("Import row at line {} failed", row.line.number, e);
+                row.error = "Row failed: " + e.getMessage();
+            }
+        }
+
+        customerRepository.saveAll(newCustomers);
+        loanRepository.saveAll(loans);
+        installmentRepository.saveAll(installments);
+    }
+
+    private void addLoan(ImportRow row, Customer customer, List<Loan> loans, List<LoanInstallment> installments) {
+        CreateLoanRequest request = row.loanRequest;
+        boolean fullyPaid = row.paidInstallments == request.getNumberOfInstallments();
+        if (!fullyPaid) {
+            // Validated here rather than through the transactional LoanService so a rejected row cannot mark the
+            // chunk rollback-only
+            loanValidationService.validateCustomerLimit(customer, request.getAmount());
+        }
+
+        Loan loan = loanFactory.buildLoan(customer, request);
+        loan.setCreateDate(row.createDate.atStartOfDay());
+        List<LoanInstallment> loanInstallments = loanFactory.createInstallments(loan);
+        for (int i = 0; i < row.paidInstallments; i++) {
+            LoanInstallment installment = loanInstallments.get(i);
+            installment.setPaid(true);
+            installment.setPaidAmount(installment.getAmount());
+            installment.setPaymentDate(installment.getDueDate());
+        }
+        loanBalanceService.recalculate(loan, loanInstallments);
+        loan.setPaid(fullyPaid);
+
+        if (!fullyPaid) {
+            customer.setUsedCreditLimit(customer.getUsedCreditLimit().add(request.getAmount()));
+        }
+        loans.add(loan);
+        installments.addAll(loanInstallments);
+    }
+
+    private static String required(String value, String field) {
+        if (value.isBlank()) {
+            throw new LoanValidationException(field + " is required");
+        }
+        return value.trim();
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import chunk could not be parsed", e.getCause());
+        }
+    }
+
+    private record RawLine(long number, String text) {
+    }
+
+    private static class ImportRow {
+        private final RawLine line;
+        private String type;
+        private String error;
+        private String customerRef;
+        private String name;
+        private String surname;
+        private BigDecimal creditLimit;
+        private BigDecimal usedCreditLimit;
+        private CreateLoanRequest loanRequest;
+        private LocalDate createDate;
+        private int paidInstallments;
+
+        private ImportRow(RawLine line) {
+            this.line = line;
+        }
+    }
+
+    private static class Progress {
+        private long lineNumber;
+        private long rowsRead;
+        private long customers;
+        private long loans;
+        private long rejected;
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.RiskAnalysisDTO;
+import com.example.loanapp.dto.RiskRefreshReport;
+import com.example.loanapp.model.Customer;
+import com.example.loanapp.model.CustomerRiskScore;
+import com.example.loanapp.repository.CustomerDebtSummary;
+import com.example.loanapp.repository.CustomerLatePayments;
+import com.example.loanapp.repository.CustomerRepository;
+import com.example.loanapp.repository.CustomerRiskScoreRepository;
+import com.example.loanapp.repository.LoanInstallmentRepository;
+import com.example.loanapp.repository.LoanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputes {@link RiskAnalysisDTO} for the whole portfolio and serves it from memory.
+ * A full pass streams customer ids in pages that are scored in parallel with a few aggregate
+ * queries per page. Later refreshes only rescore customers that need it:
+ * <ul>
+ *     <li>customers whose loans changed since the previous run, found through {@code Loan.lastModified};</li>
+ *     <li>customers without a score;</li>
+ *     <li>customers whose unpaid installments fell due since the previous run, because their late payments changed.</li>
+ * </ul>
+ */
+@Service
+public class PortfolioRiskService {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioRiskService.class);
+
+    private final CustomerRepository customerRepository;
+    private final LoanRepository loanRepository;
+    private final LoanInstallmentRepository installmentRepository;
+    private final CustomerRiskScoreRepository riskScoreRepository;
+    private final LoanService loanService;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int pageSize;
+    private final Duration refreshOverlap;
+
+    private final Map<Long, Score> scores = new ConcurrentHashMap<>();
+    private final ReentrantLock runLock = new ReentrantLock();
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile LocalDate lastAsOfDate;
+
+    public PortfolioRiskService(CustomerRepository customerRepository,
+                                LoanRepository loanRepository,
+                                LoanInstallmentRepository installmentRepository,
+                                CustomerRiskScoreRepository riskScoreRepository,
+                                LoanService loanService,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${loan.risk.parallelism:4}") int parallelism,
+                                @Value("${loan.risk.page-size:500}") int pageSize,
+                                @Value("${loan.risk.refresh-overlap:PT1M}") Duration refreshOverlap) {
+        this.customerRepository = customerRepository;
+        this.loanRepository = loanRepository;
+        this.installmentRepository = installmentRepository;
+        this.riskScoreRepository = riskScoreRepository;
+        this.loanService = loanService;
+        this.transactionTemplate = transactionTemplate;
+        this.parallelism = parallelism;
+        this.pageSize = pageSize;
+        this.refreshOverlap = refreshOverlap;
+    }
+
+    public RiskAnalysisDTO getRiskAnalysis(Long customerId) {
+        Score score = scores.get(customerId);
+        return score != null ? score.analysis() : loanService.analyzeCustomerRisk(customerId);
+    }
+
+    /**
+     * Precomputed score of the customer if it was computed after {@code after}, without falling back
+     * to a live analysis.
+     */
+    public Optional<RiskAnalysisDTO> findRiskAnalysisComputedAfter(Long customerId, LocalDateTime after) {
+        return Optional.ofNullable(scores.get(customerId))
+                .filter(score -> score.computedAt().isAfter(after))
+                .map(Score::analysis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadScores() {
+        List<CustomerRiskScore> stored = riskScoreRepository.findAll();
+        for (CustomerRiskScore score : stored) {
+            scores.put(score.getCustomerId(), new Score(toDto(score), score.getComputedAt()));
+        }
+        if (stored.isEmpty()) {
+            refresh(true);
+            return;
+        }
+        lastRunStartedAt = riskScoreRepository.findLatestComputedAt();
+        lastAsOfDate = stored.stream().map(CustomerRiskScore::getAsOfDate).min(LocalDate::compareTo).orElse(null);
+        logger.info("Loaded {} precomputed customer risk scores", stored.size());
+    }
+
+    @Scheduled(fixedDelayString = "${loan.risk.refresh-interval:PT1M}", initialDelayString = "${loan.risk.refresh-interval:PT1M}")
+    public void refreshScheduled() {
+        if (lastRunStartedAt != null && runLock.tryLock()) {
+            try {
+                refreshChanged();
+            } finally {
+                runLock.unlock();
+            }
+        }
+    }
+
+    public RiskRefreshReport refresh(boolean full) {
+        runLock.lock();
+        try {
+            return full || lastRunStartedAt == null ? recomputeAll() : refreshChanged();
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private RiskRefreshReport recomputeAll() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDate today = startedAt.toLocalDate();
+        long startNanos = System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        List<Future<Integer>> pages = new ArrayList<>();
+        try {
+            long lastId = 0L;
+            List<Long> ids;
+            while (!(ids = customerRepository.findIdsAfter(lastId, PageRequest.of(0, pageSize))).isEmpty()) {
+                List<Long> page = ids;
+                pages.add(pool.submit(() -> scorePage(page, today, startedAt)));
+                lastId = ids.get(ids.size() - 1);
+            }
+            return finish(true, await(pages), startedAt, startNanos);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private RiskRefreshReport refreshChanged() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDate today = startedAt.toLocalDate();
+        long startNanos = System.nanoTime();
+
+        // The overlap covers transactions that were still open when the previous run started
+        Set<Long> customerIds = new TreeSet<>(loanRepository.findCustomerIdsWithLoansModifiedSince(
+                lastRunStartedAt.minus(refreshOverlap)));
+        customerIds.addAll(customerRepository.findIdsWithoutRiskScore());
+        if (lastAsOfDate != null && lastAsOfDate.isBefore(today)) {
+            customerIds.addAll(installmentRepository.findCustomerIdsWithInstallmentsFallingDue(lastAsOfDate, today));
+        }
+
+        List<Long> ids = new ArrayList<>(customerIds);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        List<Future<Integer>> pages = new ArrayList<>();
+        try {
+            for (int from = 0; from < ids.size(); from += pageSize) {
+                List<Long> page = ids.subList(from, Math.min(from + pageSize, ids.size()));
+                pages.add(pool.submit(() -> scorePage(page, today, startedAt)));
+            }
+            return finish(false, await(pages), startedAt, startNanos);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private int scorePage(List<Long> customerIds, LocalDate today, LocalDateTime computedAt) {
+        List<RiskAnalysisDTO> page = transactionTemplate.execute(status -> {
+            Map<Long, CustomerDebtSummary> debts = loanRepository.summarizeActiveLoans(customerIds).stream()
+                    .collect(Collectors.toMap(CustomerDebtSummary::customerId, Function.identity()));
+            Map<Long, Long> latePayments = installmentRepository.countOverdueByCustomerIds(customerIds, today).stream()
+                    .collect(Collectors.toMap(CustomerLatePayments::customerId, CustomerLatePayments::latePayments));
+            Map<Long, CustomerRiskScore> stored = riskScoreRepository.findAllById(customerIds).stream()
+                    .collect(Collectors.toMap(CustomerRiskScore::getCustomerId, Function.identity()));
+
+            List<RiskAnalysisDTO> results = new ArrayList<>();
+            List<CustomerRiskScore> toSave = new ArrayList<>();
+            for (Customer customer : customerRepository.findAllById(customerIds)) {
+                CustomerDebtSummary debt = debts.get(customer.getId());
+                RiskAnalysisDTO analysis = RiskScoring.analyze(customer.getId(),
+                        customer.getCreditLimit(),
+                        customer.getUsedCreditLimit(),
+                        debt == null ? 0 : debt.activeLoans().intValue(),
+                        latePayments.getOrDefault(customer.getId(), 0L).intValue(),
+                        debt == null || debt.totalDebt() == null ? BigDecimal.ZERO : debt.totalDebt());
+
+                CustomerRiskScore score = stored.get(customer.getId());
+                if (score == null) {
+                    score = new CustomerRiskScore();
+                    score.setCustomerId(customer.getId());
+                }
+                apply(score, analysis, today, computedAt);
+                toSave.add(score);
+                results.add(analysis);
+            }
+            riskScoreRepository.saveAll(toSave);
+            return results;
+        });
+
+        // Publish only after the page has committed
+        for (RiskAnalysisDTO analysis : page) {
+            scores.put(analysis.getCustomerId(), new Score(analysis, computedAt));
+        }
+        return page.size();
+    }
+
+    private long await(List<Future<Integer>> pages) {
+        long customers = 0;
+        try {
+            for (Future<Integer> page : pages) {
+                customers += page.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Risk scoring was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Risk scoring failed", e.getCause());
+        }
+        return customers;
+    }
+
+    private RiskRefreshReport finish(boolean full, long customers, LocalDateTime startedAt, long startNanos) {
+        lastRunStartedAt = startedAt;
+        lastAsOfDate = startedAt.toLocalDate();
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        RiskRefreshReport report = RiskRefreshReport.builder()
+                .fullRecompute(full)
+                .customers(customers)
+                .wallTimeMillis(elapsedNanos / 1_000_000)
+                .customersPerSecond(Math.round(customers / Math.max(elapsedNanos / 1_000_000_000.0, 1e-9)))
+                .build();
+        if (full || customers > 0) {
+            logger.info("Scored {} customers ({}) in {} ms, {} customers/s", customers,
+                    full ? "full" : "incremental", report.getWallTimeMillis(), report.getCustomersPerSecond());
+        }
+        return report;
+    }
+
+    private static void apply(CustomerRiskScore score, RiskAnalysisDTO analysis, LocalDate asOfDate, LocalDateTime computedAt) {
+        score.setRiskLevel(analysis.getRiskLevel());
+        score.setTotalDebt(analysis.getTotalDebt());
+        score.setUnusedCreditLimit(analysis.getUnusedCreditLimit());
+        score.setActiveLoans(analysis.getActiveLoans());
+        score.setLatePayments(analysis.getLatePayments());
+        score.setCreditScore(analysis.getCreditScore());
+        score.setAsOfDate(asOfDate);
+        score.setComputedAt(computedAt);
+    }
+
+    private static RiskAnalysisDTO toDto(CustomerRiskScore score) {
+        return RiskAnalysisDTO.builder()
+                .customerId(score.getCustomerId())
+                .riskLevel(score.getRiskLevel())
+                .totalDebt(score.getTotalDebt())
+                .unusedCreditLimit(score.getUnusedCreditLimit())
+                .activeLoans(score.getActiveLoans())
+                .latePayments(score.getLatePayments())
+                .creditScore(score.getCreditScore())
+                .recommendation(RiskScoring.generateRecommendation(score.getRiskLevel()))
+                .build();
+    }
+
+    private record Score(RiskAnalysisDTO analysis, LocalDateTime computedAt) {
+    }
+}
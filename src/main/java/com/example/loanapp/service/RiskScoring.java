@@ -0,0 +1,56 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.RiskAnalysisDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Risk level, credit score and recommendation rules shared by the live per-customer analysis and
+ * the portfolio batch, so both always agree on the same inputs.
+ */
+final class RiskScoring {
+    private static final BigDecimal MEDIUM_RISK_DEBT_RATIO = new BigDecimal("0.7");
+
+    private RiskScoring() {
+    }
+
+    static RiskAnalysisDTO analyze(Long customerId, BigDecimal creditLimit, BigDecimal usedCreditLimit,
+                                   int activeLoans, int latePayments, BigDecimal totalDebt) {
+        String riskLevel = calculateRiskLevel(creditLimit, latePayments, totalDebt);
+
+        return RiskAnalysisDTO.builder()
+                .customerId(customerId)
+                .riskLevel(riskLevel)
+                .totalDebt(totalDebt)
+                .unusedCreditLimit(creditLimit.subtract(usedCreditLimit))
+                .activeLoans(activeLoans)
+                .latePayments(latePayments)
+                .creditScore(calculateCreditScore(latePayments, totalDebt))
+                .recommendation(generateRecommendation(riskLevel))
+                .build();
+    }
+
+    private static Double calculateCreditScore(int latePayments, BigDecimal totalDebt) {
+        return 100.0 - (latePayments * 10) - (totalDebt.doubleValue() / 1000);
+    }
+
+    private static String calculateRiskLevel(BigDecimal creditLimit, int latePayments, BigDecimal totalDebt) {
+        if (latePayments > 3 || totalDebt.compareTo(creditLimit) > 0) {
+            return "HIGH";
+        } else if (latePayments > 1 || totalDebt.compareTo(creditLimit.multiply(MEDIUM_RISK_DEBT_RATIO)) > 0) {
+            return "MEDIUM";
+        }
+        return "LOW";
+    }
+
+    static String generateRecommendation(String riskLevel) {
+        switch (riskLevel) {
+            case "HIGH":
+                return "Credit applications should be carefully evaluated. Debt restructuring might be needed.";
+            case "MEDIUM":
+                return "New credit applications can be considered with additional guarantees.";
+            default:
+                return "Customer is eligible for new credit applications.";
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.loanapp.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic over {@code long} minor units (cents).
+ * All rounding is HALF_UP to two decimals, which is the scale amounts are persisted with,
+ * so results match the equivalent BigDecimal expression rounded to cents.
+ */
+public final class MoneyMath {
+    public static final int SCALE = 2;
+    public static final long MINOR_PER_UNIT = 100;
+
+    // Early payment discount and late payment penalty are 0.1% of the amount per day
+    private static final long PER_DAY_RATE_DIVISOR = 1000;
+
+    private MoneyMath() {
+    }
+
+    public static long toMinor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static long toMinorRounded(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static long toMinorRoundedDown(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.DOWN).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder != 0 && Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Amount due for an installment paid {@code daysDifference} days before its due date
+     * (negative when paid late): {@code amount - amount * 0.001 * days}.
+     */
+    public static long adjustForPaymentDay(long amountMinor, long daysDifference) {
+        return divideHalfUp(Math.multiplyExact(amountMinor, PER_DAY_RATE_DIVISOR - daysDifference), PER_DAY_RATE_DIVISOR);
+    }
+
+    public static long perDayCharge(long amountMinor, long days) {
+        return divideHalfUp(Math.multiplyExact(amountMinor, days), PER_DAY_RATE_DIVISOR);
+    }
+
+    /**
+     * Equal installment of a flat-interest loan: {@code loanAmount * (1 + rate) / installments}.
+     * Falls back to BigDecimal when the amount has sub-cent digits or the rate is too precise for a long.
+     */
+    public static long flatInstallment(BigDecimal loanAmount, BigDecimal interestRate, int numberOfInstallments) {
+        try {
+            long loanAmountMinor = toMinor(loanAmount);
+            long rateUnscaled = interestRate.unscaledValue().longValueExact();
+            int rateScale = interestRate.scale();
+            if (rateScale < 0) {
+                rateUnscaled = Math.multiplyExact(rateUnscaled, powerOfTen(-rateScale));
+                rateScale = 0;
+            }
+            long rateDenominator = powerOfTen(rateScale);
+            long numerator = Math.multiplyExact(loanAmountMinor, Math.addExact(rateDenominator, rateUnscaled));
+            return divideHalfUp(numerator, Math.multiplyExact(rateDenominator, numberOfInstallments));
+        } catch (ArithmeticException e) {
+            return toMinor(loanAmount.multiply(BigDecimal.ONE.add(interestRate))
+                    .divide(BigDecimal.valueOf(numberOfInstallments), SCALE, RoundingMode.HALF_UP));
+        }
+    }
+
+    public static long share(long amountMinor, int parts) {
+        return divideHalfUp(amountMinor, parts);
+    }
+
+    public static long half(long amountMinor) {
+        return divideHalfUp(amountMinor, 2);
+    }
+
+    /**
+     * {@code amount - other / 2} rounded once, as the BigDecimal expression would be.
+     */
+    public static long subtractHalf(long amountMinor, long otherMinor) {
+        return divideHalfUp(Math.subtractExact(Math.multiplyExact(amountMinor, 2), otherMinor), 2);
+    }
+
+    private static long powerOfTen(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result = Math.multiplyExact(result, 10);
+        }
+        return result;
+    }
+}
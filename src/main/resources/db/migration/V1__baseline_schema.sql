@@ -0,0 +1,119 @@
+-- Baseline schema, matching the entity mappings checked by ddl-auto=validate
+
+create sequence customer_seq start with 1 increment by 50;
+create sequence loan_seq start with 1 increment by 50;
+create sequence loan_installment_seq start with 1 increment by 50;
+create sequence payment_journal_seq start with 1 increment by 50;
+create sequence penalty_accrual_seq start with 1 increment by 50;
+
+create table customer (
+    id bigint not null,
+    version bigint,
+    name varchar(255),
+    surname varchar(255),
+    credit_limit numeric(38,2),
+    used_credit_limit numeric(38,2),
+    primary key (id)
+);
+
+create table loan (
+    id bigint not null,
+    version bigint,
+    customer_id bigint,
+    loan_amount numeric(38,2),
+    number_of_installments integer,
+    create_date timestamp(6),
+    interest_rate numeric(38,2),
+    paid boolean not null,
+    amortization_method varchar(255) check (amortization_method in ('FLAT','ANNUITY','DECLINING_BALANCE')),
+    outstanding_principal numeric(38,2),
+    outstanding_amount numeric(38,2),
+    paid_installment_count integer,
+    next_due_date date,
+    last_modified timestamp(6),
+    primary key (id),
+    constraint fk_loan_customer foreign key (customer_id) references customer
+);
+
+create table loan_installment (
+    id bigint not null,
+    loan_id bigint not null,
+    amount numeric(38,2) not null,
+    paid_amount numeric(38,2) not null,
+    due_date date not null,
+    payment_date date,
+    paid boolean not null,
+    primary key (id),
+    constraint fk_installment_loan foreign key (loan_id) references loan
+);
+
+create table customer_risk_score (
+    customer_id bigint not null,
+    as_of_date date,
+    computed_at timestamp(6),
+    active_loans integer,
+    late_payments integer,
+    total_debt numeric(38,2),
+    unused_credit_limit numeric(38,2),
+    credit_score float(53),
+    risk_level varchar(255),
+    primary key (customer_id)
+);
+
+create table customer_summary (
+    customer_id bigint not null,
+    document clob not null,
+    updated_at timestamp(6) not null,
+    primary key (customer_id)
+);
+
+create table payment_idempotency_record (
+    idempotency_key varchar(128) not null,
+    loan_id bigint not null,
+    amount numeric(38,2) not null,
+    response clob not null,
+    created_at timestamp(6) not null,
+    primary key (idempotency_key)
+);
+
+create table payment_journal (
+    id bigint not null,
+    loan_id bigint not null,
+    amount numeric(38,2) not null,
+    idempotency_key varchar(128) unique,
+    status varchar(16) not null check (status in ('PENDING','APPLIED','REJECTED')),
+    accepted_at timestamp(6) not null,
+    applied_at timestamp(6),
+    paid_installments integer,
+    total_paid_amount numeric(38,2),
+    loan_fully_paid boolean,
+    failure_reason varchar(512),
+    primary key (id)
+);
+
+create table penalty_accrual (
+    id bigint not null,
+    loan_id bigint not null,
+    installment_id bigint not null,
+    accrual_date date not null,
+    due_date date not null,
+    days_overdue bigint not null,
+    installment_amount numeric(38,2) not null,
+    accrued_penalty numeric(38,2) not null,
+    primary key (id)
+);
+
+-- Customer loan lists and debt sums; customer_id leads, so it also serves the foreign key
+create index idx_loan_customer_paid_create_date on loan (customer_id, paid, create_date, id);
+-- Keyset-paged loan search
+create index idx_loan_create_date on loan (create_date, id);
+-- Loans changed since the previous incremental risk refresh
+create index idx_loan_last_modified on loan (last_modified);
+
+-- Installments of a loan (payments, plans, balances) and overdue installments by loan id range
+create index idx_installment_loan_paid_due_date on loan_installment (loan_id, paid, due_date);
+-- Overdue installments across the portfolio (penalty accrual, risk scoring)
+create index idx_installment_paid_due_date on loan_installment (paid, due_date);
+
+create index idx_payment_journal_status on payment_journal (status, id);
+create index idx_penalty_accrual_date_loan on penalty_accrual (accrual_date, loan_id);
@@ -0,0 +1 @@
+create index idx_idempotency_created_at on payment_idempotency_record (created_at);
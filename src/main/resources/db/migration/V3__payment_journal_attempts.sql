@@ -0,0 +1,4 @@
+alter table payment_journal add column attempts integer default 0 not null;
+alter table payment_journal add column next_attempt_at timestamp(6);
+update payment_journal set next_attempt_at = accepted_at;
+alter table payment_journal alter column next_attempt_at set not null;
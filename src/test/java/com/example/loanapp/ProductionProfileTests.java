@@ -0,0 +1,50 @@
+package com.example.loanapp;
+
+import com.example.loanapp.service.CustomerService;
+import com.example.loanapp.service.LoanFixtures;
+import com.example.loanapp.service.LoanService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Starts the prod profile twice on the same database directory: the first start migrates an empty
+ * database, the second finds nothing to migrate, and both pass Hibernate's schema validation.
+ */
+class ProductionProfileTests {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void migratesAndValidatesFileDatabase() {
+        Long loanId;
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals("3", context.getBean(Flyway.class).info().current().getVersion().getVersion());
+
+            LoanFixtures fixtures = new LoanFixtures(context.getBean(CustomerService.class),
+                    context.getBean(LoanService.class));
+            loanId = fixtures.createLoan(fixtures.createCustomer("50000"), "12000", 12);
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(0, context.getBean(Flyway.class).info().pending().length);
+            assertEquals(12, context.getBean(LoanService.class).getPaymentPlan(loanId).size());
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(LoanappApplication.class)
+                .profiles("prod")
+                .run("--server.port=0",
+                        "--management.server.port=0",
+                        "--loan.data-dir=" + dataDir,
+                        "--loan.scheduling.enabled=false");
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.loanapp.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class AuthControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void bearerTokenAuthenticatesUntilRevoked() throws Exception {
+        String token = issueToken("admin:admin123");
+
+        mockMvc.perform(get("/api/loans/customer/1").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/auth/token").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/loans/customer/1").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tokenKeepsTheRolesOfTheLogin() throws Exception {
+        String token = issueToken("customer:customer123");
+
+        mockMvc.perform(get("/api/loans/customer/1").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void bearerTokenCannotMintAnotherToken() throws Exception {
+        String token = issueToken("admin:admin123");
+
+        mockMvc.perform(post("/api/auth/token").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void unknownTokenIsRejected() throws Exception {
+        mockMvc.perform(get("/api/loans/customer/1").header(HttpHeaders.AUTHORIZATION, "Bearer unknown"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/api/auth/token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String issueToken(String credentials) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/token").header(HttpHeaders.AUTHORIZATION, "Basic "
+                        + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode response = objectMapper.readTree(body);
+        assertEquals("Bearer", response.get("tokenType").asText());
+        return response.get("accessToken").asText();
+    }
+}
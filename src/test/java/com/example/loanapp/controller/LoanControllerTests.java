@@ -0,0 +1,187 @@
+package com.example.loanapp.controller;
+
+import com.example.loanapp.dto.CreateLoanRequest;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.model.LoanInstallment;
+import com.example.loanapp.repository.LoanInstallmentRepository;
+import com.example.loanapp.repository.LoanRepository;
+import com.example.loanapp.service.CustomerService;
+import com.example.loanapp.service.LoanFixtures;
+import com.example.loanapp.service.LoanService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class LoanControllerTests {
+    private static final String ADMIN = "Basic "
+            + Base64.getEncoder().encodeToString("admin:admin123".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanInstallmentRepository installmentRepository;
+
+    private LoanFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new LoanFixtures(customerService, loanService);
+    }
+
+    @Test
+    void batchReportsTheOutcomeOfEveryItem() throws Exception {
+        Long customerId = fixtures.createCustomer("15000");
+        CreateLoanRequest invalidTenor = LoanFixtures.loanRequest(customerId, "1000", 7);
+        List<CreateLoanRequest> requests = List.of(
+                LoanFixtures.loanRequest(customerId, "12000", 12),
+                invalidTenor,
+                LoanFixtures.loanRequest(customerId, "5000", 6),
+                LoanFixtures.loanRequest(Long.MAX_VALUE, "1000", 6));
+
+        String body = mockMvc.perform(post("/api/loans/batch")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode response = objectMapper.readTree(body);
+        assertEquals(4, response.get("totalRequests").asInt());
+        assertEquals(1, response.get("succeeded").asInt());
+        assertEquals(3, response.get("failed").asInt());
+
+        JsonNode results = response.get("results");
+        assertTrue(results.get(0).get("success").asBoolean());
+        assertFalse(results.get(0).get("loanId").isNull());
+        assertTrue(results.get(1).get("error").asText().startsWith("Number of installments"));
+        // The first loan already used 12000 of the 15000 limit within the same chunk
+        assertEquals("Insufficient credit limit", results.get(2).get("error").asText());
+        assertEquals("Customer not found", results.get(3).get("error").asText());
+        assertEquals(0, new BigDecimal("12000")
+                .compareTo(customerService.getCustomer(customerId).getUsedCreditLimit()));
+    }
+
+    @Test
+    void historyMatchesTheUnpagedOrderingAndPagesSliceIt() throws Exception {
+        Long loanId = fixtures.createLoan(fixtures.createCustomer("50000"), "6000", 6);
+        fixtures.pay(loanId, "3600");
+
+        // Spread the three payments over two days around the creation date
+        LocalDate today = LocalDate.now();
+        Loan loan = loanRepository.findById(loanId).orElseThrow();
+        loan.setCreateDate(today.minusDays(7).atTime(12, 0));
+        loanRepository.save(loan);
+        List<LoanInstallment> installments = installmentRepository.findByLoanId(loanId);
+        installments.sort(Comparator.comparing(LoanInstallment::getId));
+        installments.get(0).setPaymentDate(today.minusDays(3));
+        installments.get(1).setPaymentDate(today.minusDays(10));
+        installments.get(2).setPaymentDate(today.minusDays(10));
+        installmentRepository.saveAll(installments);
+
+        JsonNode history = getHistory(loanId, "");
+        List<String> expected = previousHistory(loan.getCreateDate(), installmentRepository.findByLoanId(loanId));
+        assertEquals(expected, describe(history));
+        assertEquals(List.of("PAYMENT", "PAYMENT", "CREATION", "PAYMENT"),
+                describe(history).stream().map(entry -> entry.split(" ")[0]).toList());
+
+        List<String> paged = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            JsonNode slice = getHistory(loanId, "?page=" + page + "&size=2");
+            assertTrue(slice.size() <= 2);
+            paged.addAll(describe(slice));
+        }
+        assertEquals(expected, paged);
+        assertEquals(List.of(expected.get(3)), describe(getHistory(loanId, "?page=1&size=3")).subList(0, 1));
+        assertEquals(0, getHistory(loanId, "?page=5&size=2").size());
+        // A page without a size uses the default size of 20
+        assertEquals(expected, describe(getHistory(loanId, "?page=0")));
+        assertEquals(0, getHistory(loanId, "?page=1").size());
+    }
+
+    @Test
+    void historyRejectsPagesOutsideTheIntRange() throws Exception {
+        Long loanId = fixtures.createLoan(fixtures.createCustomer("50000"), "6000", 6);
+
+        for (String query : List.of("?page=-1&size=2", "?page=0&size=0", "?page=" + Integer.MAX_VALUE + "&size=2")) {
+            mockMvc.perform(get("/api/loans/" + loanId + "/history" + query)
+                            .header(HttpHeaders.AUTHORIZATION, ADMIN))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private JsonNode getHistory(Long loanId, String query) throws Exception {
+        String body = mockMvc.perform(get("/api/loans/" + loanId + "/history" + query)
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static List<String> describe(JsonNode history) {
+        List<String> entries = new ArrayList<>();
+        history.forEach(entry -> entries.add(entry.get("transactionType").asText() + " "
+                + entry.get("amount").decimalValue().stripTrailingZeros().toPlainString() + " "
+                + entry.get("remainingDebt").decimalValue().stripTrailingZeros().toPlainString()));
+        return entries;
+    }
+
+    // The history as it was built before paging: every entry, remaining debt recomputed per payment date
+    private static List<String> previousHistory(LocalDateTime createDate, List<LoanInstallment> installments) {
+        record Entry(LocalDateTime date, String description) {
+        }
+        BigDecimal loanAmount = new BigDecimal("6000");
+        List<Entry> entries = new ArrayList<>();
+        entries.add(new Entry(createDate, "CREATION " + loanAmount.toPlainString() + " " + loanAmount.toPlainString()));
+        installments.stream().sorted(Comparator.comparing(LoanInstallment::getId)).filter(LoanInstallment::isPaid)
+                .forEach(installment -> {
+                    BigDecimal remainingDebt = installments.stream()
+                            .filter(i -> !i.isPaid() || i.getPaymentDate().isAfter(installment.getPaymentDate()))
+                            .map(LoanInstallment::getAmount)
+                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+                    entries.add(new Entry(installment.getPaymentDate().atStartOfDay(), "PAYMENT "
+                            + installment.getPaidAmount().stripTrailingZeros().toPlainString() + " "
+                            + remainingDebt.stripTrailingZeros().toPlainString()));
+                });
+        return entries.stream().sorted(Comparator.comparing(Entry::date)).map(Entry::description).toList();
+    }
+}
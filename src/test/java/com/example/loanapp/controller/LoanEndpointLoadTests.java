@@ -0,0 +1,257 @@
+package com.example.loanapp.controller;
+
+import com.example.loanapp.LoanappApplication;
+import com.example.loanapp.service.CustomerService;
+import com.example.loanapp.service.LoanFixtures;
+import com.example.loanapp.service.LoanService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares throughput and latency of the payment and customer-loans endpoints with Tomcat on
+ * platform threads and on virtual threads. Both runs use the virtual-threads profile, so the
+ * connection pool is identical and only the thread mode differs. Virtual threads need Java 21:
+ * <pre>
+ * mvn -Pjava21 test -Dtest=LoanEndpointLoadTests -Dloadtest=true [-Dloadtest.concurrency=400 -Dloadtest.duration=PT30S]
+ * </pre>
+ * Requests carry a bearer token by default; {@code -Dloadtest.auth=basic} measures HTTP Basic instead.
+ * <p>
+ * {@link #compareProfiles} runs the same load on platform threads against the default settings and
+ * against the prod profile, which uses a file database under a temporary directory.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class LoanEndpointLoadTests {
+    private static final Logger logger = LoggerFactory.getLogger(LoanEndpointLoadTests.class);
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 400);
+    private static final int CUSTOMERS = Integer.getInteger("loadtest.customers", 500);
+    private static final int LOANS_PER_CUSTOMER = Integer.getInteger("loadtest.loans-per-customer", 4);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("loadtest.warmup", "PT5S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT20S"));
+    private static final BigDecimal LOAN_AMOUNT = new BigDecimal("12000");
+    private static final BigDecimal INSTALLMENT_AMOUNT = new BigDecimal("1200.00");
+    private static final boolean BASIC_AUTH = "basic".equals(System.getProperty("loadtest.auth", "bearer"));
+    private static final String BASIC_AUTHORIZATION = "Basic " + Base64.getEncoder()
+            .encodeToString("admin:admin123".getBytes(StandardCharsets.UTF_8));
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void compareThreadModes() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.addAll(runMode(false));
+        if (Runtime.version().feature() >= 21) {
+            report.addAll(runMode(true));
+        } else {
+            report.add("virtual   skipped, running on Java " + Runtime.version().feature());
+        }
+
+        logReport("threads", report);
+    }
+
+    @Test
+    void compareProfiles(@TempDir Path dataDir) throws Exception {
+        List<String> report = new ArrayList<>();
+        // As shipped: in-memory database, SQL echo and DEBUG logging
+        report.addAll(run("default", new String[0],
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-default;DB_CLOSE_DELAY=-1",
+                "--loan.scheduling.enabled=false"));
+        report.addAll(run("prod", new String[]{"prod"},
+                "--server.port=0",
+                "--management.server.port=0",
+                "--loan.data-dir=" + dataDir,
+                "--loan.scheduling.enabled=false"));
+
+        logReport("profile", report);
+    }
+
+    private static void logReport(String modeColumn, List<String> report) {
+        StringBuilder table = new StringBuilder(String.format("%-9s %-22s %10s %9s %9s %8s %8s",
+                modeColumn, "endpoint", "req/s", "p50 ms", "p99 ms", "4xx", "failed"));
+        report.forEach(line -> table.append(System.lineSeparator()).append(line));
+        logger.info("Load test results{}{}", System.lineSeparator(), table);
+    }
+
+    private List<String> runMode(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        return run(mode, new String[]{"virtual-threads"},
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.springframework=WARN",
+                "--logging.level.com.example.loanapp=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--loan.scheduling.enabled=false");
+    }
+
+    private List<String> run(String mode, String[] profiles, String... args) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoanappApplication.class)
+                .profiles(profiles)
+                .run(args)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            List<Long> customerIds = new ArrayList<>();
+            List<Long> loanIds = new ArrayList<>();
+            seed(context, customerIds, loanIds);
+            String authorization = BASIC_AUTH ? BASIC_AUTHORIZATION : "Bearer " + issueToken(baseUrl);
+
+            IntFunction<HttpRequest> customerLoans = i -> request(baseUrl + "/api/loans/customer/"
+                    + customerIds.get(i % customerIds.size()), authorization).GET().build();
+            // Each loan has three installments due within three months; later payments on it are
+            // rejected with 400 after the same lookup, so both modes see the same mix of work
+            IntFunction<HttpRequest> pay = i -> request(baseUrl + "/api/loans/pay", authorization)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"loanId\":" + loanIds.get(i % loanIds.size())
+                            + ",\"amount\":" + INSTALLMENT_AMOUNT + "}"))
+                    .build();
+
+            List<String> rows = new ArrayList<>();
+            rows.add(measure(mode, "GET /customer/{id}", customerLoans));
+            rows.add(measure(mode, "POST /pay", pay));
+            return rows;
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context, List<Long> customerIds, List<Long> loanIds) {
+        LoanFixtures fixtures = new LoanFixtures(context.getBean(CustomerService.class),
+                context.getBean(LoanService.class));
+        String creditLimit = LOAN_AMOUNT.multiply(BigDecimal.valueOf(LOANS_PER_CUSTOMER)).toPlainString();
+        for (int c = 0; c < CUSTOMERS; c++) {
+            Long customerId = fixtures.createCustomer(creditLimit);
+            customerIds.add(customerId);
+
+            for (int l = 0; l < LOANS_PER_CUSTOMER; l++) {
+                loanIds.add(fixtures.createLoan(customerId, LOAN_AMOUNT.toPlainString(), 12));
+            }
+        }
+    }
+
+    private String measure(String mode, String endpoint, IntFunction<HttpRequest> requests) throws Exception {
+        drive(requests, WARMUP);
+        Stats stats = drive(requests, DURATION);
+        return String.format("%-9s %-22s %10.0f %9.1f %9.1f %8d %8d", mode, endpoint,
+                stats.count() / (DURATION.toNanos() / 1e9),
+                stats.percentile(0.50) / 1e6, stats.percentile(0.99) / 1e6,
+                stats.clientErrors, stats.failures);
+    }
+
+    private Stats drive(IntFunction<HttpRequest> requests, Duration duration) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            long deadline = System.nanoTime() + duration.toNanos();
+            List<Future<Stats>> results = new ArrayList<>();
+            for (int w = 0; w < CONCURRENCY; w++) {
+                int worker = w;
+                results.add(workers.submit(() -> {
+                    Stats stats = new Stats();
+                    for (int i = worker; System.nanoTime() < deadline; i += CONCURRENCY) {
+                        long start = System.nanoTime();
+                        try {
+                            int status = client.send(requests.apply(i), HttpResponse.BodyHandlers.discarding())
+                                    .statusCode();
+                            stats.record(System.nanoTime() - start, status);
+                        } catch (Exception e) {
+                            stats.failures++;
+                        }
+                    }
+                    return stats;
+                }));
+            }
+
+            Stats total = new Stats();
+            for (Future<Stats> result : results) {
+                total.merge(result.get());
+            }
+            assertTrue(total.count() > 0, "no request completed");
+            return total;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private String issueToken(String baseUrl) throws Exception {
+        HttpRequest login = request(baseUrl + "/api/auth/token", BASIC_AUTHORIZATION)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        String body = client.send(login, HttpResponse.BodyHandlers.ofString()).body();
+        return new ObjectMapper().readTree(body).get("accessToken").asText();
+    }
+
+    private HttpRequest.Builder request(String url, String authorization) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", authorization);
+    }
+
+    private static class Stats {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long clientErrors;
+        private long failures;
+
+        void record(long nanos, int status) {
+            if (status >= 500) {
+                failures++;
+                return;
+            }
+            if (status >= 400) {
+                clientErrors++;
+            }
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+
+        void merge(Stats other) {
+            latencies = Arrays.copyOf(latencies, size + other.size);
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            clientErrors += other.clientErrors;
+            failures += other.failures;
+        }
+
+        long count() {
+            return size;
+        }
+
+        double percentile(double p) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted[Math.min(size - 1, (int) Math.ceil(p * size) - 1)];
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.CreateLoanRequest;
+import com.example.loanapp.dto.EarlyClosureDTO;
+import com.example.loanapp.dto.PaymentPlanDTO;
+import com.example.loanapp.model.AmortizationMethod;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.repository.LoanRepository;
+import com.example.loanapp.util.MoneyMath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AmortizationServiceTests {
+
+    private static final BigDecimal LOAN_AMOUNT = new BigDecimal("12000");
+
+    @Autowired
+    private AmortizationService amortizationService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Test
+    void flatScheduleKeepsEqualInstallmentsAndPrincipalShares() {
+        AmortizationSchedule schedule = amortizationService.schedule(
+                AmortizationMethod.FLAT, LOAN_AMOUNT, new BigDecimal("0.2"), 12);
+
+        for (int i = 0; i < schedule.size(); i++) {
+            assertEquals(120_000, schedule.amount(i));
+            assertEquals(100_000, schedule.principal(i));
+            assertEquals(20_000, schedule.interest(i));
+        }
+        assertEquals(1_000_000, schedule.outstandingPrincipal(2));
+        assertEquals(200_000, schedule.outstandingInterest(2));
+    }
+
+    @Test
+    void flatPrincipalPartsAddUpToTheLoanAmount() {
+        AmortizationSchedule schedule = amortizationService.schedule(
+                AmortizationMethod.FLAT, new BigDecimal("100.00"), new BigDecimal("0.2"), 3);
+
+        long principal = 0;
+        for (int i = 0; i < schedule.size(); i++) {
+            principal += schedule.principal(i);
+            assertEquals(schedule.amount(0), schedule.amount(i));
+        }
+        assertEquals(10_000, principal);
+        assertEquals(3_334, schedule.principal(2));
+        assertEquals(3_334, schedule.remainingPrincipal(2));
+        assertEquals(0, schedule.outstandingPrincipal(3));
+    }
+
+    @Test
+    void annuityScheduleHasEqualInstallmentsAndRepaysPrincipal() {
+        AmortizationSchedule schedule = amortizationService.schedule(
+                AmortizationMethod.ANNUITY, LOAN_AMOUNT, new BigDecimal("0.12"), 12);
+
+        assertEquals(106_619, schedule.amount(0));
+        assertEquals(12_000, schedule.interest(0));
+        assertEquals(94_619, schedule.principal(0));
+        long principal = 0;
+        for (int i = 0; i < schedule.size(); i++) {
+            principal += schedule.principal(i);
+            if (i < schedule.size() - 1) {
+                assertEquals(106_619, schedule.amount(i));
+            }
+        }
+        assertEquals(1_200_000, principal);
+        assertEquals(0, schedule.outstandingPrincipal(12));
+    }
+
+    @Test
+    void decliningBalanceScheduleChargesInterestOnRemainingPrincipal() {
+        AmortizationSchedule schedule = amortizationService.schedule(
+                AmortizationMethod.DECLINING_BALANCE, LOAN_AMOUNT, new BigDecimal("0.12"), 12);
+
+        assertEquals(112_000, schedule.amount(0));
+        assertEquals(101_000, schedule.amount(11));
+        assertEquals(100_000, schedule.principal(5));
+        assertEquals(78_000, schedule.outstandingInterest(0));
+    }
+
+    @Test
+    void schedulesAreSharedBetweenLoansWithTheSameTerms() {
+        AmortizationSchedule first = amortizationService.schedule(
+                AmortizationMethod.ANNUITY, LOAN_AMOUNT, new BigDecimal("0.12"), 24);
+        AmortizationSchedule second = amortizationService.schedule(
+                AmortizationMethod.ANNUITY, new BigDecimal("12000.00"), new BigDecimal("0.120"), 24);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void annuityLoanUsesScheduleForInstallmentsPlanAndEarlyClosure() {
+        Long customerId = new LoanFixtures(customerService, loanService).createCustomer("100000");
+
+        CreateLoanRequest loanRequest = LoanFixtures.loanRequest(customerId, LOAN_AMOUNT.toPlainString(), 12);
+        loanRequest.setInterestRate(new BigDecimal("0.12"));
+        loanRequest.setAmortizationMethod(AmortizationMethod.ANNUITY);
+        Long loanId = loanService.createLoan(loanRequest).getId();
+
+        AmortizationSchedule schedule = amortizationService.schedule(
+                AmortizationMethod.ANNUITY, LOAN_AMOUNT, new BigDecimal("0.12"), 12);
+        Loan loan = loanRepository.findById(loanId).orElseThrow();
+        assertEquals(AmortizationMethod.ANNUITY, loan.getAmortizationMethod());
+        assertEquals(0, new BigDecimal("12000.00").compareTo(loan.getOutstandingPrincipal()));
+
+        List<PaymentPlanDTO> plan = loanService.getPaymentPlan(loanId);
+        assertEquals(new BigDecimal("1066.19"), plan.get(0).getInstallmentAmount());
+        assertEquals(new BigDecimal("120.00"), plan.get(0).getInterestAmount());
+        assertEquals(new BigDecimal("11053.81"), plan.get(1).getRemainingPrincipal());
+
+        EarlyClosureDTO closure = loanService.calculateEarlyClosure(loanId);
+        assertEquals(0, MoneyMath.toDecimal(schedule.outstandingInterest(0))
+                .compareTo(closure.getSavedInterest()));
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.CreateLoanRequest;
+import com.example.loanapp.dto.CustomerResponseDTO;
+import com.example.loanapp.exception.LoanValidationException;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "logging.level.org.springframework=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class CreditLimitConcurrencyTests {
+    private static final Logger logger = LoggerFactory.getLogger(CreditLimitConcurrencyTests.class);
+
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 40;
+    private static final BigDecimal LOAN_AMOUNT = new BigDecimal("1000");
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    void concurrentLoansNeverExceedCreditLimit() throws Exception {
+        Long customerId = createCustomer("100000");
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        long elapsedNanos = runConcurrently(thread -> {
+            try {
+                loanService.createLoan(loanRequest(customerId));
+                created.incrementAndGet();
+            } catch (LoanValidationException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        CustomerResponseDTO customer = customerService.getCustomer(customerId);
+        BigDecimal expectedUsed = LOAN_AMOUNT.multiply(BigDecimal.valueOf(created.get()));
+        assertEquals(0, expectedUsed.compareTo(customer.getUsedCreditLimit()));
+        assertTrue(customer.getUsedCreditLimit().compareTo(customer.getCreditLimit()) <= 0);
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, created.get() + rejected.get());
+        assertTrue(created.get() > 0);
+
+        logger.info("Hot customer: {} created, {} rejected, {} requests/s",
+                created.get(), rejected.get(), throughput(THREADS * ATTEMPTS_PER_THREAD, elapsedNanos));
+    }
+
+    @Test
+    void independentCustomersDoNotContend() throws Exception {
+        List<Long> customerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            customerIds.add(createCustomer("1000000"));
+        }
+
+        long elapsedNanos = runConcurrently(thread -> loanService.createLoan(loanRequest(customerIds.get(thread))));
+
+        for (Long customerId : customerIds) {
+            BigDecimal expectedUsed = LOAN_AMOUNT.multiply(BigDecimal.valueOf(ATTEMPTS_PER_THREAD));
+            assertEquals(0, expectedUsed.compareTo(customerService.getCustomer(customerId).getUsedCreditLimit()));
+        }
+
+        logger.info("Independent customers: {} loans/s", throughput(THREADS * ATTEMPTS_PER_THREAD, elapsedNanos));
+    }
+
+    private long runConcurrently(ThreadTask task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        task.run(thread);
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures);
+        return elapsedNanos;
+    }
+
+    private Long createCustomer(String creditLimit) {
+        return new LoanFixtures(customerService, loanService).createCustomer(creditLimit);
+    }
+
+    private CreateLoanRequest loanRequest(Long customerId) {
+        return LoanFixtures.loanRequest(customerId, LOAN_AMOUNT.toPlainString(), 12);
+    }
+
+    private static long throughput(int operations, long elapsedNanos) {
+        return Math.round(operations / (elapsedNanos / 1_000_000_000.0));
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+}
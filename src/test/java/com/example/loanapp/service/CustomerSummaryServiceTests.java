@@ -0,0 +1,139 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.CustomerSummaryDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerSummaryServiceTests {
+
+    private static final int LOAN_COUNT = 5;
+    // Dashboard reads are a single primary key lookup and JSON parse; see the README for measurements
+    private static final long P99_TARGET_NANOS = 25_000_000;
+
+    @Autowired
+    private CustomerSummaryService customerSummaryService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private PortfolioRiskService portfolioRiskService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+    private Statistics statistics;
+    private Long customerId;
+    private Long firstLoanId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        LoanFixtures fixtures = new LoanFixtures(customerService, loanService);
+        customerId = fixtures.createCustomer("100000");
+
+        for (int i = 0; i < LOAN_COUNT; i++) {
+            Long loanId = fixtures.createLoan(customerId, "12000", 12);
+            if (i == 0) {
+                firstLoanId = loanId;
+            }
+        }
+        LoanFixtures.awaitAsyncTasks(applicationTaskExecutor);
+    }
+
+    @Test
+    void summaryFollowsLoanChangesAndIsReadWithOneStatement() {
+        statistics.clear();
+        CustomerSummaryDTO summary = customerSummaryService.getSummary(customerId);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(LOAN_COUNT, summary.getLoans().size());
+        assertEquals(LOAN_COUNT, summary.getActiveLoans());
+        assertEquals(0, new BigDecimal("60000").compareTo(summary.getUsedCreditLimit()));
+        assertEquals(0, new BigDecimal("72000.00").compareTo(summary.getTotalOutstanding()));
+        assertEquals(12, summary.getLoans().get(0).getPaymentPlan().size());
+
+        loanService.payLoan(LoanFixtures.payRequest(firstLoanId, "2400"));
+        LoanFixtures.awaitAsyncTasks(applicationTaskExecutor);
+
+        CustomerSummaryDTO paid = customerSummaryService.getSummary(customerId);
+        assertEquals(2, paid.getLoans().get(0).getPaidInstallmentCount());
+        assertTrue(paid.getLoans().get(0).getPaymentPlan().get(1).isPaid());
+        assertEquals(0, new BigDecimal("69600.00").compareTo(paid.getTotalOutstanding()));
+    }
+
+    @Test
+    void riskScoreOlderThanTheSummaryIsNotServed() {
+        portfolioRiskService.refresh(true);
+        assertEquals(0, new BigDecimal("72000.00").compareTo(
+                customerSummaryService.getSummary(customerId).getRisk().getTotalDebt()));
+
+        loanService.payLoan(LoanFixtures.payRequest(firstLoanId, "2400"));
+        LoanFixtures.awaitAsyncTasks(applicationTaskExecutor);
+
+        CustomerSummaryDTO paid = customerSummaryService.getSummary(customerId);
+        assertEquals(0, new BigDecimal("69600.00").compareTo(paid.getRisk().getTotalDebt()));
+        assertEquals(paid.getActiveLoans(), paid.getRisk().getActiveLoans());
+    }
+
+    @Test
+    void summaryReadsMeetTheP99Target() {
+        // The test profile logs every statement and transaction at DEBUG, which would dominate the timings
+        LoggingSystem loggingSystem = LoggingSystem.get(getClass().getClassLoader());
+        Map<String, LogLevel> levels = new LinkedHashMap<>();
+        for (String logger : List.of("org.springframework", "com.example.loanapp", "org.hibernate.SQL")) {
+            levels.put(logger, loggingSystem.getLoggerConfiguration(logger).getConfiguredLevel());
+            loggingSystem.setLogLevel(logger, LogLevel.WARN);
+        }
+        long[] latencies = new long[2_000];
+        try {
+            for (int i = 0; i < 500; i++) {
+                customerSummaryService.getSummary(customerId);
+            }
+            for (int i = 0; i < latencies.length; i++) {
+                long start = System.nanoTime();
+                customerSummaryService.getSummary(customerId);
+                latencies[i] = System.nanoTime() - start;
+            }
+        } finally {
+            levels.forEach(loggingSystem::setLogLevel);
+        }
+        Arrays.sort(latencies);
+        long p99 = latencies[(int) Math.ceil(latencies.length * 0.99) - 1];
+
+        assertTrue(p99 < P99_TARGET_NANOS, "p99 was " + p99 / 1_000 + " us");
+    }
+
+    @Test
+    void rebuildRecreatesEverySummary() {
+        assertTrue(customerSummaryService.rebuildAll().getRebuiltCustomers() >= 1);
+        assertEquals(LOAN_COUNT, customerSummaryService.getSummary(customerId).getLoans().size());
+    }
+}
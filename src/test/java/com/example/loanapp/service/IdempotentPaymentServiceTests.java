@@ -0,0 +1,141 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.PayLoanRequest;
+import com.example.loanapp.dto.PaymentResponse;
+import com.example.loanapp.exception.LoanValidationException;
+import com.example.loanapp.model.PaymentIdempotencyRecord;
+import com.example.loanapp.repository.PaymentIdempotencyRecordRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotentPaymentServiceTests {
+
+    @Autowired
+    private IdempotentPaymentService idempotentPaymentService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private PaymentIdempotencyStore idempotencyStore;
+
+    @Autowired
+    private PaymentIdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+    private Statistics statistics;
+    private Long loanId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        LoanFixtures fixtures = new LoanFixtures(customerService, loanService);
+        loanId = fixtures.createLoan(fixtures.createCustomer("100000"), "12000", 12);
+    }
+
+    @Test
+    void duplicatePaymentIsAnsweredWithoutQueries() {
+        PayLoanRequest request = payRequest(loanId, UUID.randomUUID().toString());
+
+        PaymentResponse first = idempotentPaymentService.payLoan(request);
+        LoanFixtures.awaitAsyncTasks(applicationTaskExecutor);
+        statistics.clear();
+        PaymentResponse second = idempotentPaymentService.payLoan(request);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(first, second);
+        assertEquals(1, loanService.getLoanHistory(loanId).stream()
+                .filter(entry -> "PAYMENT".equals(entry.getTransactionType()))
+                .count());
+    }
+
+    @Test
+    void keyCannotBeReusedForAnotherLoan() {
+        String key = UUID.randomUUID().toString();
+        idempotentPaymentService.payLoan(payRequest(loanId, key));
+
+        assertThrows(LoanValidationException.class,
+                () -> idempotentPaymentService.payLoan(payRequest(loanId + 1, key)));
+    }
+
+    @Test
+    void keyCannotBeReusedForAnotherAmount() {
+        String key = UUID.randomUUID().toString();
+        idempotentPaymentService.payLoan(payRequest(loanId, key));
+
+        PayLoanRequest larger = payRequest(loanId, key);
+        larger.setAmount(new BigDecimal("2400"));
+        assertThrows(LoanValidationException.class, () -> idempotentPaymentService.payLoan(larger));
+
+        PayLoanRequest sameAmount = payRequest(loanId, key);
+        sameAmount.setAmount(new BigDecimal("1200.00"));
+        assertEquals(1, idempotentPaymentService.payLoan(sameAmount).getPaidInstallments());
+    }
+
+    @Test
+    void paymentWithoutLoanIsRejected() {
+        assertThrows(LoanValidationException.class,
+                () -> idempotentPaymentService.payLoan(payRequest(null, UUID.randomUUID().toString())));
+    }
+
+    @Test
+    void laneCountMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new PaymentLanes(0));
+    }
+
+    @Test
+    void recordsOlderThanTheRetentionArePurged() {
+        String expiredKey = UUID.randomUUID().toString();
+        String recentKey = UUID.randomUUID().toString();
+        recordRepository.save(record(expiredKey, LocalDateTime.now().minusHours(25)));
+        recordRepository.save(record(recentKey, LocalDateTime.now().minusHours(23)));
+
+        assertTrue(idempotencyStore.purgeExpired() >= 1);
+
+        assertFalse(recordRepository.existsById(expiredKey));
+        assertTrue(recordRepository.existsById(recentKey));
+    }
+
+    private PaymentIdempotencyRecord record(String idempotencyKey, LocalDateTime createdAt) {
+        PaymentIdempotencyRecord record = new PaymentIdempotencyRecord();
+        record.setIdempotencyKey(idempotencyKey);
+        record.setLoanId(loanId);
+        record.setAmount(new BigDecimal("1200"));
+        record.setResponse("{}");
+        record.setCreatedAt(createdAt);
+        return record;
+    }
+
+    private PayLoanRequest payRequest(Long loanId, String idempotencyKey) {
+        PayLoanRequest request = LoanFixtures.payRequest(loanId, "1200");
+        request.setIdempotencyKey(idempotencyKey);
+        return request;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.EarlyClosureDTO;
+import com.example.loanapp.dto.LoanBalanceReport;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.repository.LoanRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanBalanceServiceTests {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private LoanBalanceService loanBalanceService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Test
+    void balancesFollowPaymentsAndCanBeRebuilt() {
+        LoanFixtures fixtures = new LoanFixtures(customerService, loanService);
+        Long loanId = fixtures.createLoan(fixtures.createCustomer("100000"), "12000", 12);
+        fixtures.pay(loanId, "2400");
+
+        Loan stored = loanRepository.findById(loanId).orElseThrow();
+        assertEquals(2, stored.getPaidInstallmentCount());
+        assertEquals(0, new BigDecimal("12000.00").compareTo(stored.getOutstandingAmount()));
+        assertEquals(0, new BigDecimal("10000.00").compareTo(stored.getOutstandingPrincipal()));
+
+        EarlyClosureDTO closure = loanService.calculateEarlyClosure(loanId);
+        assertEquals(0, new BigDecimal("2000.00").compareTo(closure.getSavedInterest()));
+        assertEquals(0, new BigDecimal("11000.00").compareTo(closure.getEarlyClosureAmount()));
+
+        assertEquals(0, loanBalanceService.verifyAll().getInconsistentLoans());
+
+        stored.setOutstandingAmount(BigDecimal.ONE);
+        loanRepository.save(stored);
+
+        LoanBalanceReport report = loanBalanceService.verifyAll();
+        assertEquals(1, report.getInconsistentLoans());
+        assertTrue(report.getInconsistentLoanIds().contains(loanId));
+
+        assertEquals(1, loanBalanceService.rebuildAll().getRepairedLoans());
+        assertEquals(0, loanBalanceService.verifyAll().getInconsistentLoans());
+        assertEquals(0, new BigDecimal("12000.00")
+                .compareTo(loanRepository.findById(loanId).orElseThrow().getOutstandingAmount()));
+    }
+
+    @Test
+    void startupBackfillOnlyTouchesLoansWithoutBalances() {
+        LoanFixtures fixtures = new LoanFixtures(customerService, loanService);
+        Long customerId = fixtures.createCustomer("100000");
+        Long backfilledId = fixtures.createLoan(customerId, "6000", 6);
+        Long untouchedId = fixtures.createLoan(customerId, "6000", 6);
+        fixtures.pay(backfilledId, "1200");
+
+        Loan missing = loanRepository.findById(backfilledId).orElseThrow();
+        missing.setOutstandingAmount(null);
+        missing.setOutstandingPrincipal(null);
+        missing.setPaidInstallmentCount(null);
+        missing.setNextDueDate(null);
+        loanRepository.save(missing);
+        Loan drifted = loanRepository.findById(untouchedId).orElseThrow();
+        drifted.setOutstandingAmount(BigDecimal.ONE);
+        loanRepository.save(drifted);
+
+        loanBalanceService.rebuildMissingBalances();
+
+        Loan backfilled = loanRepository.findById(backfilledId).orElseThrow();
+        assertEquals(1, backfilled.getPaidInstallmentCount());
+        assertEquals(0, new BigDecimal("6000.00").compareTo(backfilled.getOutstandingAmount()));
+        assertEquals(0, BigDecimal.ONE.compareTo(loanRepository.findById(untouchedId).orElseThrow().getOutstandingAmount()));
+
+        loanBalanceService.rebuildAll();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.BatchLoanItemResult;
+import com.example.loanapp.dto.BatchLoanResponse;
+import com.example.loanapp.dto.CreateLoanRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoanBatchServiceTests {
+
+    private final LoanService loanService = mock(LoanService.class);
+
+    @Test
+    void chunkIsRetriedAfterConcurrentCreditLimitChange() {
+        when(loanService.createLoanChunk(anyList(), anyInt()))
+                .thenThrow(new OptimisticLockingFailureException("Customer changed"))
+                .thenAnswer(invocation -> created(invocation.getArgument(0), invocation.getArgument(1)));
+
+        BatchLoanResponse response = new LoanBatchService(loanService, 2).createLoans(requests(3));
+
+        assertEquals(3, response.getSucceeded());
+        assertEquals(List.of(0, 1, 2), response.getResults().stream().map(BatchLoanItemResult::getIndex).toList());
+        verify(loanService, times(2)).createLoanChunk(anyList(), eq(0));
+        verify(loanService, times(1)).createLoanChunk(anyList(), eq(2));
+    }
+
+    @Test
+    void chunkThatKeepsFailingOnlyFailsItsOwnItems() {
+        when(loanService.createLoanChunk(anyList(), eq(2)))
+                .thenAnswer(invocation -> created(invocation.getArgument(0), invocation.getArgument(1)));
+        when(loanService.createLoanChunk(anyList(), eq(0)))
+                .thenThrow(new OptimisticLockingFailureException("Customer changed"));
+
+        BatchLoanResponse response = new LoanBatchService(loanService, 2).createLoans(requests(3));
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertFalse(response.getResults().get(1).isSuccess());
+        assertTrue(response.getResults().get(1).getError().startsWith("Chunk failed"));
+        assertTrue(response.getResults().get(2).isSuccess());
+        verify(loanService, times(3)).createLoanChunk(anyList(), eq(0));
+    }
+
+    @Test
+    void chunkSizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new LoanBatchService(loanService, 0));
+    }
+
+    private static List<CreateLoanRequest> requests(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> LoanFixtures.loanRequest(1L, "1000", 12))
+                .toList();
+    }
+
+    private static List<BatchLoanItemResult> created(List<CreateLoanRequest> chunk, int firstIndex) {
+        return IntStream.range(0, chunk.size())
+                .mapToObj(i -> BatchLoanItemResult.builder()
+                        .index(firstIndex + i)
+                        .loanId(100L + firstIndex + i)
+                        .success(true)
+                        .build())
+                .toList();
+    }
+}
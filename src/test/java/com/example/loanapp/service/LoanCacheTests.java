@@ -0,0 +1,119 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.EarlyClosureDTO;
+import com.example.loanapp.config.CacheConfig;
+import com.example.loanapp.dto.PaymentPlanDTO;
+import com.example.loanapp.repository.LoanRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanCacheTests {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    private Statistics statistics;
+    private LoanFixtures fixtures;
+    private Long loanId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        fixtures = new LoanFixtures(customerService, loanService);
+        Long customerId = fixtures.createCustomer("100000");
+        loanId = fixtures.createLoan(customerId, "12000", 12);
+        LoanFixtures.awaitAsyncTasks(applicationTaskExecutor);
+    }
+
+    @Test
+    void paymentPlanIsServedFromCacheUntilPayment() {
+        double hitsBefore = cacheGets("paymentPlans", "hit");
+
+        List<PaymentPlanDTO> first = loanService.getPaymentPlan(loanId);
+        statistics.clear();
+        List<PaymentPlanDTO> second = loanService.getPaymentPlan(loanId);
+
+        assertSame(first, second);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(hitsBefore + 1, cacheGets("paymentPlans", "hit"));
+        assertFalse(second.get(0).isPaid());
+
+        fixtures.pay(loanId, "1200");
+
+        List<PaymentPlanDTO> afterPayment = loanService.getPaymentPlan(loanId);
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+        assertTrue(afterPayment.get(0).isPaid());
+        assertFalse(afterPayment.get(1).isPaid());
+    }
+
+    @Test
+    void earlyClosureQuoteIsServedFromCacheUntilPayment() {
+        EarlyClosureDTO first = loanService.calculateEarlyClosure(loanId);
+        statistics.clear();
+        EarlyClosureDTO second = loanService.calculateEarlyClosure(loanId);
+
+        assertSame(first, second);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, new BigDecimal("14400.00").compareTo(second.getTotalRemainingDebt()));
+
+        fixtures.pay(loanId, "1200");
+
+        EarlyClosureDTO afterPayment = loanService.calculateEarlyClosure(loanId);
+        assertEquals(0, new BigDecimal("13200.00").compareTo(afterPayment.getTotalRemainingDebt()));
+    }
+
+    @Test
+    void planPutAfterAPaymentUnderThePreviousVersionIsNotServed() {
+        Long versionBeforePayment = loanRepository.findById(loanId).orElseThrow().getVersion();
+        List<PaymentPlanDTO> stalePlan = loanService.getPaymentPlan(loanId);
+
+        fixtures.pay(loanId, "1200");
+        // A reader that loaded the loan before the payment stores its result only after the commit
+        cacheManager.getCache(CacheConfig.PAYMENT_PLANS).put(loanId + ":" + versionBeforePayment, stalePlan);
+
+        assertTrue(loanService.getPaymentPlan(loanId).get(0).isPaid());
+    }
+
+    private double cacheGets(String cache, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.loanapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanExportServiceTests {
+
+    @Autowired
+    private LoanExportService loanExportService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private Long loanId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        LoanFixtures fixtures = new LoanFixtures(customerService, loanService);
+        Long customerId = fixtures.createCustomer("100000");
+        loanId = fixtures.createLoan(customerId, "6000", 6);
+        fixtures.pay(loanId, "1200");
+        LoanFixtures.awaitAsyncTasks(applicationTaskExecutor);
+    }
+
+    @Test
+    void ndjsonNestsInstallmentsUnderTheirLoan() throws Exception {
+        statistics.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long loans = loanExportService.export(LoanExportFormat.NDJSON, out);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(loans, lines.size());
+
+        JsonNode loan = null;
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            if (node.get("loanId").asLong() == loanId) {
+                loan = node;
+            }
+        }
+        assertTrue(loan != null);
+        assertEquals(0, new BigDecimal("6000").compareTo(loan.get("loanAmount").decimalValue()));
+        assertEquals(6, loan.get("installments").size());
+        JsonNode first = loan.get("installments").get(0);
+        assertTrue(first.get("paid").asBoolean());
+        assertEquals(LocalDate.now().toString(), first.get("paymentDate").asText());
+        assertTrue(loan.get("installments").get(1).get("paymentDate").isNull());
+    }
+
+    @Test
+    void csvWritesOneRowPerInstallment() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        loanExportService.export(LoanExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertTrue(lines.get(0).startsWith("loan_id,customer_id,"));
+        List<String[]> rows = lines.stream()
+                .skip(1)
+                .map(line -> line.split(",", -1))
+                .filter(columns -> columns[0].equals(loanId.toString()))
+                .toList();
+        assertEquals(6, rows.size());
+        assertEquals(14, rows.get(0).length);
+        assertEquals("true", rows.get(0)[13]);
+        assertEquals("", rows.get(1)[12]);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.CreateCustomerRequest;
+import com.example.loanapp.dto.CreateLoanRequest;
+import com.example.loanapp.dto.PayLoanRequest;
+import com.example.loanapp.dto.PaymentResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Customers, loans and payments the service tests start from. Loans use a 20% interest rate and the
+ * default amortization method. Creating a loan or paying one refreshes the customer summary on the
+ * {@code @Async} executor; tests that count statements wait for it with {@link #awaitAsyncTasks}.
+ */
+public class LoanFixtures {
+    private final CustomerService customerService;
+    private final LoanService loanService;
+
+    public LoanFixtures(CustomerService customerService, LoanService loanService) {
+        this.customerService = customerService;
+        this.loanService = loanService;
+    }
+
+    public Long createCustomer(String creditLimit) {
+        CreateCustomerRequest request = new CreateCustomerRequest();
+        request.setName("Test");
+        request.setSurname("Customer");
+        request.setCreditLimit(new BigDecimal(creditLimit));
+        request.setUsedCreditLimit(BigDecimal.ZERO);
+        return customerService.createCustomer(request).getId();
+    }
+
+    public Long createLoan(Long customerId, String amount, int installments) {
+        return loanService.createLoan(loanRequest(customerId, amount, installments)).getId();
+    }
+
+    public PaymentResponse pay(Long loanId, String amount) {
+        return loanService.payLoan(payRequest(loanId, amount));
+    }
+
+    public static CreateLoanRequest loanRequest(Long customerId, String amount, int installments) {
+        CreateLoanRequest request = new CreateLoanRequest();
+        request.setCustomerId(customerId);
+        request.setAmount(new BigDecimal(amount));
+        request.setInterestRate(new BigDecimal("0.2"));
+        request.setNumberOfInstallments(installments);
+        return request;
+    }
+
+    public static PayLoanRequest payRequest(Long loanId, String amount) {
+        PayLoanRequest request = new PayLoanRequest();
+        request.setLoanId(loanId);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+
+    public static void awaitAsyncTasks(ThreadPoolTaskExecutor executor) {
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (pool.getCompletedTaskCount() < pool.getTaskCount()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Async tasks did not finish within 10 seconds");
+            }
+            LockSupport.parkNanos(10_000_000);
+        }
+    }
+}
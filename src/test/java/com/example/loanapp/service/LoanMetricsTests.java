@@ -0,0 +1,132 @@
+package com.example.loanapp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.server.port=0")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class LoanMetricsTests {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void loanOperationsAreTimedByTenorAndOutcome() throws Exception {
+        LoanFixtures fixtures = new LoanFixtures(customerService, loanService);
+        Long loanId = fixtures.createLoan(fixtures.createCustomer("100000"), "9000", 9);
+        fixtures.pay(loanId, "2400");
+
+        assertTrue(timerCount("create_loan", "9", "success") >= 1);
+        assertTrue(timerCount("pay_loan", "9", "success") >= 1);
+        assertTrue(meterRegistry.get("loan.payment.installments").tag("tenor", "9").summary().totalAmount() >= 2);
+        // Installments due in the future are paid early, so a discount is always granted
+        assertTrue(meterRegistry.get("loan.payment.discount").tag("tenor", "9").counter().count() > 0);
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity(
+                "http://127.0.0.1:" + managementPort + "/actuator/prometheus", String.class);
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        assertTrue(scrape.getBody().contains("loan_operations_seconds_bucket"));
+        assertEquals(HttpStatus.UNAUTHORIZED, restTemplate.getForEntity(
+                "http://127.0.0.1:" + serverPort + "/actuator/prometheus", String.class).getStatusCode());
+    }
+
+    @Test
+    void paymentRolledBackAfterTheServiceReturnsIsAnError() {
+        LoanFixtures fixtures = new LoanFixtures(customerService, loanService);
+        Long loanId = fixtures.createLoan(fixtures.createCustomer("100000"), "24000", 24);
+        long successes = timerCount("pay_loan", "24", "success");
+        long errors = timerCount("pay_loan", "24", "error");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            fixtures.pay(loanId, "1200");
+            // Nothing is recorded until the surrounding transaction completes
+            assertEquals(errors, timerCount("pay_loan", "24", "error"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(successes, timerCount("pay_loan", "24", "success"));
+        assertEquals(errors + 1, timerCount("pay_loan", "24", "error"));
+        assertNull(meterRegistry.find("loan.payment.installments").tag("tenor", "24").summary());
+    }
+
+    @Test
+    void validationFailuresAreCountedByRoute() throws Exception {
+        double before = validationFailures();
+
+        mockMvc.perform(post("/api/loans/pay")
+                        .header(HttpHeaders.AUTHORIZATION, basicAuth("admin", "admin123"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"loanId\": -1, \"amount\": 100}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(before + 1, validationFailures());
+        assertTrue(timerCount("pay_loan", "none", "rejected") >= 1);
+    }
+
+    private long timerCount(String operation, String tenor, String outcome) {
+        Timer timer = meterRegistry.find("loan.operations")
+                .tag("operation", operation)
+                .tag("tenor", tenor)
+                .tag("outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double validationFailures() {
+        var counter = meterRegistry.find("loan.validation.failures").tag("uri", "/api/loans/pay").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static String basicAuth(String username, String password) {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
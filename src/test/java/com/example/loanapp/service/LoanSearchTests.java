@@ -0,0 +1,100 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.LoanFilterDTO;
+import com.example.loanapp.dto.LoanResponseDTO;
+import com.example.loanapp.dto.LoanSearchResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanSearchTests {
+    private static final int[] TENORS = {6, 9, 12, 24, 12, 6, 12};
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+    private Statistics statistics;
+    private Long customerId;
+    private List<Long> loanIds;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        LoanFixtures fixtures = new LoanFixtures(customerService, loanService);
+        customerId = fixtures.createCustomer("1000000");
+
+        loanIds = new ArrayList<>();
+        for (int i = 0; i < TENORS.length; i++) {
+            loanIds.add(fixtures.createLoan(customerId, String.valueOf(1000 * (i + 1)), TENORS[i]));
+        }
+        LoanFixtures.awaitAsyncTasks(applicationTaskExecutor);
+    }
+
+    @Test
+    void pagesWalkAllLoansNewestFirstWithOneStatementEach() {
+        LoanFilterDTO filter = LoanFilterDTO.builder().customerId(customerId).size(3).build();
+        List<LoanResponseDTO> seen = new ArrayList<>();
+
+        LoanSearchResponse page;
+        do {
+            statistics.clear();
+            page = loanService.searchLoans(filter);
+            assertEquals(1, statistics.getPrepareStatementCount());
+            seen.addAll(page.getLoans());
+            filter.setAfterCreateDate(page.getNextCreateDate());
+            filter.setAfterId(page.getNextId());
+        } while (page.isHasMore());
+
+        assertEquals(TENORS.length, seen.size());
+        List<LoanResponseDTO> expectedOrder = new ArrayList<>(seen);
+        expectedOrder.sort(Comparator.comparing(LoanResponseDTO::getCreateDate)
+                .thenComparing(LoanResponseDTO::getId).reversed());
+        assertEquals(expectedOrder, seen);
+        assertTrue(seen.stream().map(LoanResponseDTO::getId).toList().containsAll(loanIds));
+        assertEquals("Test Customer", seen.get(0).getCustomerName());
+    }
+
+    @Test
+    void filtersNarrowTheResult() {
+        LoanFilterDTO filter = LoanFilterDTO.builder()
+                .customerId(customerId)
+                .numberOfInstallments(12)
+                .isPaid(false)
+                .minAmount(new BigDecimal("4000"))
+                .maxAmount(new BigDecimal("7000"))
+                .build();
+
+        LoanSearchResponse page = loanService.searchLoans(filter);
+
+        assertFalse(page.isHasMore());
+        assertEquals(List.of(loanIds.get(6), loanIds.get(4)),
+                page.getLoans().stream().map(LoanResponseDTO::getId).toList());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.CustomerLoanDTO;
+import com.example.loanapp.dto.RiskAnalysisDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanServiceQueryCountTests {
+
+    private static final int LOAN_COUNT = 5;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+    private Statistics statistics;
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        LoanFixtures fixtures = new LoanFixtures(customerService, loanService);
+        customerId = fixtures.createCustomer("1000000");
+
+        for (int i = 0; i < LOAN_COUNT; i++) {
+            Long loanId = fixtures.createLoan(customerId, "12000", 12);
+            if (i == 0) {
+                fixtures.pay(loanId, "1200");
+            }
+        }
+        LoanFixtures.awaitAsyncTasks(applicationTaskExecutor);
+        // Count database round trips, not second-level cache hits
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void customerLoansAreLoadedWithOneStatement() {
+        statistics.clear();
+
+        List<CustomerLoanDTO> loans = loanService.getCustomerLoans(customerId);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(LOAN_COUNT, loans.size());
+        assertEquals(0, new BigDecimal("13200.00").compareTo(loans.get(0).getRemainingAmount()));
+        assertEquals(0, new BigDecimal("14400.00").compareTo(loans.get(1).getRemainingAmount()));
+    }
+
+    @Test
+    void riskAnalysisDoesNotLoadInstallments() {
+        statistics.clear();
+
+        RiskAnalysisDTO risk = loanService.analyzeCustomerRisk(customerId);
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(LOAN_COUNT, risk.getActiveLoans());
+        assertEquals(0, new BigDecimal("70800.00").compareTo(risk.getTotalDebt()));
+    }
+}
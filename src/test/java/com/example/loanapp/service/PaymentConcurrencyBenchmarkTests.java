@@ -0,0 +1,179 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.PayLoanRequest;
+import com.example.loanapp.exception.LoanValidationException;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.model.LoanInstallment;
+import com.example.loanapp.repository.LoanInstallmentRepository;
+import com.example.loanapp.repository.LoanRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares per-loan payment lanes with optimistic retries and pessimistic row locks. Every thread
+ * walks over the same loans, so each loan sees concurrent payments of one installment while only
+ * its first three installments are payable.
+ */
+@SpringBootTest(properties = {
+        "logging.level.org.springframework=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.batch=OFF",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class PaymentConcurrencyBenchmarkTests {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentConcurrencyBenchmarkTests.class);
+
+    private static final int THREADS = 8;
+    private static final int LOANS = 32;
+    private static final int PAYABLE_INSTALLMENTS = 3;
+    private static final int MAX_OPTIMISTIC_ATTEMPTS = 20;
+    private static final BigDecimal INSTALLMENT_AMOUNT = new BigDecimal("1200");
+
+    @Autowired
+    private IdempotentPaymentService idempotentPaymentService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanInstallmentRepository installmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void paymentLanes() throws Exception {
+        run("lanes", request -> idempotentPaymentService.payLoan(request));
+    }
+
+    @Test
+    void optimisticRetries() throws Exception {
+        AtomicInteger retries = new AtomicInteger();
+        run("optimistic", request -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    loanService.payLoan(request);
+                    return;
+                } catch (ConcurrencyFailureException e) {
+                    if (attempt == MAX_OPTIMISTIC_ATTEMPTS) {
+                        throw e;
+                    }
+                    retries.incrementAndGet();
+                }
+            }
+        });
+        logger.info("optimistic: {} retries", retries.get());
+    }
+
+    @Test
+    void pessimisticLocks() throws Exception {
+        run("pessimistic", request -> transactionTemplate.executeWithoutResult(status -> {
+            entityManager.find(Loan.class, request.getLoanId(), LockModeType.PESSIMISTIC_WRITE);
+            loanService.payLoan(request);
+        }));
+    }
+
+    private void run(String strategy, Consumer<PayLoanRequest> payment) throws Exception {
+        List<Long> loanIds = createLoans();
+        AtomicInteger paid = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < LOANS; i++) {
+                        Long loanId = loanIds.get((i + thread) % LOANS);
+                        try {
+                            payment.accept(payRequest(loanId));
+                            paid.incrementAndGet();
+                        } catch (LoanValidationException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures);
+        assertEquals(LOANS * PAYABLE_INSTALLMENTS, paid.get());
+        for (Long loanId : loanIds) {
+            assertPaidOnce(loanId);
+        }
+
+        logger.info("{}: {} paid, {} rejected, {} payments/s", strategy, paid.get(), rejected.get(),
+                Math.round(THREADS * LOANS / (elapsedNanos / 1_000_000_000.0)));
+    }
+
+    private void assertPaidOnce(Long loanId) {
+        List<LoanInstallment> installments = installmentRepository.findByLoanId(loanId);
+        long paidInstallments = installments.stream().filter(LoanInstallment::isPaid).count();
+        assertEquals(PAYABLE_INSTALLMENTS, paidInstallments);
+
+        Loan loan = loanRepository.findById(loanId).orElseThrow();
+        assertEquals(PAYABLE_INSTALLMENTS, loan.getPaidInstallmentCount());
+        BigDecimal expectedOutstanding = INSTALLMENT_AMOUNT.multiply(BigDecimal.valueOf(installments.size() - PAYABLE_INSTALLMENTS));
+        assertEquals(0, expectedOutstanding.compareTo(loan.getOutstandingAmount()));
+    }
+
+    private List<Long> createLoans() {
+        LoanFixtures fixtures = new LoanFixtures(customerService, loanService);
+        Long customerId = fixtures.createCustomer("10000000");
+
+        List<Long> loanIds = new ArrayList<>();
+        for (int i = 0; i < LOANS; i++) {
+            loanIds.add(fixtures.createLoan(customerId, "12000", 12));
+        }
+        return loanIds;
+    }
+
+    private PayLoanRequest payRequest(Long loanId) {
+        return LoanFixtures.payRequest(loanId, INSTALLMENT_AMOUNT.toPlainString());
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.PayLoanRequest;
+import com.example.loanapp.dto.PaymentStatusResponse;
+import com.example.loanapp.exception.LoanValidationException;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.model.LoanInstallment;
+import com.example.loanapp.model.PaymentJournalEntry;
+import com.example.loanapp.model.PaymentJournalStatus;
+import com.example.loanapp.repository.LoanInstallmentRepository;
+import com.example.loanapp.repository.LoanRepository;
+import com.example.loanapp.repository.PaymentJournalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentJournalServiceTests {
+
+    @Autowired
+    private PaymentJournalService paymentJournalService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanInstallmentRepository installmentRepository;
+
+    @Autowired
+    private PaymentJournalRepository journalRepository;
+
+    @SpyBean
+    private CreditLimitService creditLimitService;
+
+    private LoanFixtures fixtures;
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new LoanFixtures(customerService, loanService);
+        customerId = fixtures.createCustomer("100000");
+    }
+
+    @Test
+    void acceptedPaymentsAreAppliedPerLoanAndReportTheirOutcome() {
+        Long loanId = createLoan();
+        Long otherLoanId = createLoan();
+
+        PaymentStatusResponse first = paymentJournalService.accept(payment(loanId, "1200", null));
+        PaymentStatusResponse second = paymentJournalService.accept(payment(loanId, "1200", null));
+        PaymentStatusResponse tooLarge = paymentJournalService.accept(payment(loanId, "99999", null));
+        PaymentStatusResponse other = paymentJournalService.accept(payment(otherLoanId, "2400", null));
+        assertEquals(PaymentJournalStatus.PENDING, first.getStatus());
+
+        paymentJournalService.drain();
+
+        PaymentStatusResponse firstStatus = paymentJournalService.getStatus(first.getPaymentId());
+        assertEquals(PaymentJournalStatus.APPLIED, firstStatus.getStatus());
+        assertEquals(1, firstStatus.getPaidInstallments());
+        assertNotNull(firstStatus.getAppliedAt());
+        assertEquals(PaymentJournalStatus.APPLIED, paymentJournalService.getStatus(second.getPaymentId()).getStatus());
+
+        PaymentStatusResponse rejected = paymentJournalService.getStatus(tooLarge.getPaymentId());
+        assertEquals(PaymentJournalStatus.REJECTED, rejected.getStatus());
+        assertTrue(rejected.getFailureReason().startsWith("Cannot pay more than"));
+
+        assertEquals(2, paymentJournalService.getStatus(other.getPaymentId()).getPaidInstallments());
+
+        Loan loan = loanRepository.findById(loanId).orElseThrow();
+        assertEquals(2, loan.getPaidInstallmentCount());
+        assertEquals(0, new BigDecimal("12000.00").compareTo(loan.getOutstandingAmount()));
+        assertEquals(2, loanRepository.findById(otherLoanId).orElseThrow().getPaidInstallmentCount());
+    }
+
+    @Test
+    void retriedPaymentIsJournaledOnce() {
+        Long loanId = createLoan();
+        String key = UUID.randomUUID().toString();
+
+        PaymentStatusResponse accepted = paymentJournalService.accept(payment(loanId, "1200", key));
+        PaymentStatusResponse retried = paymentJournalService.accept(payment(loanId, "1200", key));
+        assertEquals(accepted.getPaymentId(), retried.getPaymentId());
+
+        paymentJournalService.drain();
+
+        assertEquals(PaymentJournalStatus.APPLIED, paymentJournalService.getStatus(accepted.getPaymentId()).getStatus());
+        assertEquals(1, loanRepository.findById(loanId).orElseThrow().getPaidInstallmentCount());
+    }
+
+    @Test
+    void paymentFailingAfterItsChangesIsRolledBackAndRejected() {
+        Long loanId = fixtures.createLoan(customerId, "6000", 6);
+        // Every installment falls due within three months, so one payment can close the loan
+        List<LoanInstallment> installments = installmentRepository.findByLoanId(loanId);
+        installments.forEach(installment -> installment.setDueDate(LocalDate.now().plusDays(10)));
+        installmentRepository.saveAll(installments);
+        doThrow(new LoanValidationException("Customer not found"))
+                .when(creditLimitService).release(any(), any());
+
+        PaymentStatusResponse partial = paymentJournalService.accept(payment(loanId, "1200", null));
+        PaymentStatusResponse closing = paymentJournalService.accept(payment(loanId, "6000", null));
+        paymentJournalService.drain();
+
+        assertEquals(PaymentJournalStatus.APPLIED, paymentJournalService.getStatus(partial.getPaymentId()).getStatus());
+        PaymentStatusResponse rejected = paymentJournalService.getStatus(closing.getPaymentId());
+        assertEquals(PaymentJournalStatus.REJECTED, rejected.getStatus());
+        assertEquals("Customer not found", rejected.getFailureReason());
+
+        Loan loan = loanRepository.findById(loanId).orElseThrow();
+        assertFalse(loan.isPaid());
+        assertEquals(1, loan.getPaidInstallmentCount());
+        assertEquals(1, installmentRepository.findByLoanId(loanId).stream().filter(LoanInstallment::isPaid).count());
+    }
+
+    @Test
+    void paymentFailingTransientlyStaysPendingAndIsAppliedOnALaterDrain() {
+        Long loanId = fixtures.createLoan(customerId, "6000", 6);
+        List<LoanInstallment> installments = installmentRepository.findByLoanId(loanId);
+        installments.forEach(installment -> installment.setDueDate(LocalDate.now().plusDays(10)));
+        installmentRepository.saveAll(installments);
+        doThrow(new OptimisticLockingFailureException("Customer was updated concurrently"))
+                .doCallRealMethod()
+                .when(creditLimitService).release(any(), any());
+
+        PaymentStatusResponse closing = paymentJournalService.accept(payment(loanId, "7200", null));
+        paymentJournalService.drain();
+
+        PaymentJournalEntry deferred = journalRepository.findById(closing.getPaymentId()).orElseThrow();
+        assertEquals(PaymentJournalStatus.PENDING, deferred.getStatus());
+        assertEquals(1, deferred.getAttempts());
+        assertTrue(deferred.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertFalse(loanRepository.findById(loanId).orElseThrow().isPaid());
+
+        // Skip the backoff instead of sleeping through it
+        deferred.setNextAttemptAt(LocalDateTime.now());
+        journalRepository.save(deferred);
+        paymentJournalService.drain();
+
+        assertEquals(PaymentJournalStatus.APPLIED, paymentJournalService.getStatus(closing.getPaymentId()).getStatus());
+        assertTrue(loanRepository.findById(loanId).orElseThrow().isPaid());
+    }
+
+    private Long createLoan() {
+        return fixtures.createLoan(customerId, "12000", 12);
+    }
+
+    private PayLoanRequest payment(Long loanId, String amount, String idempotencyKey) {
+        PayLoanRequest request = LoanFixtures.payRequest(loanId, amount);
+        request.setIdempotencyKey(idempotencyKey);
+        return request;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.PaymentResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentStatementCountTests {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Drops the @Async customer summary refreshes, which would otherwise add their statements to the count
+    @MockBean(name = "applicationTaskExecutor")
+    private TaskExecutor applicationTaskExecutor;
+
+    private Statistics statistics;
+    private LoanFixtures fixtures;
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        fixtures = new LoanFixtures(customerService, loanService);
+        customerId = fixtures.createCustomer("100000");
+    }
+
+    @Test
+    void paymentStatementsDoNotGrowWithPaidInstallments() {
+        // Loan and installment reads, the loan balance update and one batched installment update;
+        // the customer summary is refreshed off the payment thread
+        assertEquals(4, statementsFor("1200", 1));
+        assertEquals(4, statementsFor("3600", 3));
+    }
+
+    private long statementsFor(String amount, int expectedPaidInstallments) {
+        Long loanId = fixtures.createLoan(customerId, "12000", 12);
+        // Count database round trips, not second-level cache hits
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statistics.clear();
+        PaymentResponse response = fixtures.pay(loanId, amount);
+
+        assertEquals(expectedPaidInstallments, response.getPaidInstallments());
+        assertEquals(expectedPaidInstallments, response.getPaidInstallmentDetails().size());
+        assertEquals(expectedPaidInstallments + 1, statistics.getEntityUpdateCount());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.PenaltyAccrualReport;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.model.LoanInstallment;
+import com.example.loanapp.model.PenaltyAccrual;
+import com.example.loanapp.repository.LoanInstallmentRepository;
+import com.example.loanapp.repository.LoanRepository;
+import com.example.loanapp.repository.PenaltyAccrualRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PenaltyAccrualServiceTests {
+    private static final int LOANS = 10;
+
+    @Autowired
+    private PenaltyAccrualService penaltyAccrualService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private LoanBalanceService loanBalanceService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanInstallmentRepository installmentRepository;
+
+    @Autowired
+    private PenaltyAccrualRepository penaltyAccrualRepository;
+
+    @Test
+    void overdueInstallmentsAccrueDailySnapshots() {
+        LocalDate accrualDate = LocalDate.now();
+        List<Long> loanIds = createLoansWithOverdueInstallments(accrualDate);
+
+        PenaltyAccrualReport first = penaltyAccrualService.accrue(accrualDate);
+        PenaltyAccrualReport rerun = penaltyAccrualService.accrue(accrualDate);
+
+        for (Long loanId : loanIds) {
+            List<PenaltyAccrual> accruals = penaltyAccrualRepository.findByLoanIdAndAccrualDate(loanId, accrualDate);
+            accruals.sort(Comparator.comparing(PenaltyAccrual::getDaysOverdue));
+            // 1200.00 overdue for 10 and 40 days at 0.1% per day
+            assertEquals(2, accruals.size());
+            assertEquals(10, accruals.get(0).getDaysOverdue());
+            assertEquals(0, new BigDecimal("12.00").compareTo(accruals.get(0).getAccruedPenalty()));
+            assertEquals(40, accruals.get(1).getDaysOverdue());
+            assertEquals(0, new BigDecimal("48.00").compareTo(accruals.get(1).getAccruedPenalty()));
+        }
+
+        assertTrue(first.getOverdueInstallments() >= 2L * LOANS);
+        assertEquals(first.getOverdueInstallments(), rerun.getOverdueInstallments());
+        assertTrue(first.getPartitions() > 1);
+    }
+
+    @Test
+    void rerunDropsSnapshotsOfInstallmentsPaidSinceTheLastRun() {
+        LocalDate accrualDate = LocalDate.now();
+        LoanFixtures fixtures = new LoanFixtures(customerService, loanService);
+        Long customerId = fixtures.createCustomer("100000");
+        Long stillOverdueId = fixtures.createLoan(customerId, "12000", 12);
+        // Created last, so once paid it lies above every overdue loan id
+        Long paidId = fixtures.createLoan(customerId, "12000", 12);
+        makeOverdue(stillOverdueId, accrualDate.minusDays(10));
+        makeOverdue(paidId, accrualDate.minusDays(10));
+
+        penaltyAccrualService.accrue(accrualDate);
+        assertEquals(1, penaltyAccrualRepository.findByLoanIdAndAccrualDate(paidId, accrualDate).size());
+
+        fixtures.pay(paidId, "1200");
+        // Two overlapping runs are serialized and leave a single snapshot per overdue installment
+        CompletableFuture<PenaltyAccrualReport> concurrent =
+                CompletableFuture.supplyAsync(() -> penaltyAccrualService.accrue(accrualDate));
+        penaltyAccrualService.accrue(accrualDate);
+        concurrent.join();
+
+        assertEquals(0, penaltyAccrualRepository.findByLoanIdAndAccrualDate(paidId, accrualDate).size());
+        assertEquals(1, penaltyAccrualRepository.findByLoanIdAndAccrualDate(stillOverdueId, accrualDate).size());
+    }
+
+    private void makeOverdue(Long loanId, LocalDate dueDate) {
+        List<LoanInstallment> installments = installmentRepository.findByLoanId(loanId);
+        installments.sort(Comparator.comparing(LoanInstallment::getDueDate));
+        installments.get(0).setDueDate(dueDate);
+        installmentRepository.save(installments.get(0));
+
+        Loan loan = loanRepository.findById(loanId).orElseThrow();
+        loanBalanceService.recalculate(loan, installments);
+        loanRepository.save(loan);
+    }
+
+    private List<Long> createLoansWithOverdueInstallments(LocalDate accrualDate) {
+        LoanFixtures fixtures = new LoanFixtures(customerService, loanService);
+        Long customerId = fixtures.createCustomer("1000000");
+
+        List<Long> loanIds = new ArrayList<>();
+        for (int i = 0; i < LOANS; i++) {
+            Long loanId = fixtures.createLoan(customerId, "12000", 12);
+            loanIds.add(loanId);
+
+            List<LoanInstallment> installments = installmentRepository.findByLoanId(loanId);
+            installments.sort(Comparator.comparing(LoanInstallment::getDueDate));
+            installments.get(0).setDueDate(accrualDate.minusDays(40));
+            installments.get(1).setDueDate(accrualDate.minusDays(10));
+            installmentRepository.saveAll(installments.subList(0, 2));
+
+            // Keep the running balances consistent for the balance checks in other tests
+            Loan loan = loanRepository.findById(loanId).orElseThrow();
+            loanBalanceService.recalculate(loan, installments);
+            loanRepository.save(loan);
+        }
+        return loanIds;
+    }
+}
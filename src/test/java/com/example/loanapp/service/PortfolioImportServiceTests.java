@@ -0,0 +1,108 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.CustomerLoanDTO;
+import com.example.loanapp.dto.PortfolioImportReport;
+import com.example.loanapp.model.Customer;
+import com.example.loanapp.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "loan.import.chunk-size=3")
+@ActiveProfiles("test")
+class PortfolioImportServiceTests {
+
+    @Autowired
+    private PortfolioImportService portfolioImportService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void importsCustomersAndLoansAndWritesRejects() throws Exception {
+        String ref = UUID.randomUUID().toString();
+        LocalDate createDate = LocalDate.now().minusMonths(4);
+        String csv = String.join("\n",
+                "# legacy export",
+                "CUSTOMER," + ref + "," + ref + ",Test,50000",
+                "LOAN," + ref + ",12000,0.2,12," + createDate + ",3",
+                "LOAN," + ref + ",40000,0.2,24," + createDate + ",0",
+                "LOAN," + ref + ",6000,0.2,6," + createDate + ",6",
+                "LOAN," + ref + ",6000,0.9,6," + createDate + ",0",
+                "LOAN,missing-" + ref + ",6000,0.2,6," + createDate + ",0",
+                "CUSTOMER," + ref + ",Duplicate,Test,1000",
+                "LOAN," + ref + ",abc,0.2,6," + createDate + ",0",
+                "");
+
+        PortfolioImportReport report = portfolioImportService.importPortfolio(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(8, report.getRowsRead());
+        assertEquals(1, report.getCustomersImported());
+        assertEquals(2, report.getLoansImported());
+        assertEquals(5, report.getRejected());
+
+        List<String> rejects = Files.readAllLines(Path.of(report.getRejectsFile()));
+        Files.delete(Path.of(report.getRejectsFile()));
+        assertEquals(6, rejects.size());
+        assertTrue(rejects.get(1).startsWith("4,\"Insufficient credit limit\","));
+        assertTrue(rejects.get(2).startsWith("6,\"Interest rate must be between 0.1 and 0.5\","));
+        assertTrue(rejects.get(3).startsWith("7,\"Unknown customer reference: missing-"));
+        assertTrue(rejects.get(4).startsWith("8,\"Duplicate customer reference: "));
+        assertTrue(rejects.get(5).startsWith("9,\"Invalid number\",LOAN,"));
+
+        Customer customer = customerRepository.findAll().stream()
+                .filter(c -> c.getName().equals(ref))
+                .findFirst()
+                .orElseThrow();
+        // Only the loan that is still running uses credit
+        assertEquals(0, new BigDecimal("12000").compareTo(customer.getUsedCreditLimit()));
+
+        List<CustomerLoanDTO> loans = loanService.getCustomerLoans(customer.getId());
+        assertEquals(2, loans.size());
+        CustomerLoanDTO running = loans.stream().filter(loan -> !loan.isPaid()).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("12000").compareTo(running.getLoanAmount()));
+        // 12 x 1200 with three historical installments paid
+        assertEquals(0, new BigDecimal("10800.00").compareTo(running.getRemainingAmount()));
+        assertEquals(createDate.withDayOfMonth(1).plusMonths(1),
+                loanService.getLoanInstallments(running.getId()).get(0).getDueDate());
+    }
+
+    @Test
+    void loanTooLargeForItsScheduleRejectsOnlyItsOwnRow() throws Exception {
+        String ref = UUID.randomUUID().toString();
+        LocalDate createDate = LocalDate.now().minusMonths(4);
+        // One chunk: the paid-off loan skips the credit limit check, so only its schedule can reject it
+        String csv = String.join("\n",
+                "CUSTOMER," + ref + "," + ref + ",Test,50000",
+                "LOAN," + ref + ",12000,0.2,12," + createDate + ",0",
+                "LOAN," + ref + ",1e20,0.2,6," + createDate + ",6",
+                "");
+
+        PortfolioImportReport report = portfolioImportService.importPortfolio(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, report.getCustomersImported());
+        assertEquals(1, report.getLoansImported());
+        assertEquals(1, report.getRejected());
+        List<String> rejects = Files.readAllLines(Path.of(report.getRejectsFile()));
+        Files.delete(Path.of(report.getRejectsFile()));
+        assertTrue(rejects.get(1).startsWith("3,\"Amount is out of range\","));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.dto.CreateLoanRequest;
+import com.example.loanapp.dto.RiskAnalysisDTO;
+import com.example.loanapp.dto.RiskRefreshReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "loan.risk.refresh-overlap=PT0S")
+@ActiveProfiles("test")
+class PortfolioRiskServiceTests {
+
+    @Autowired
+    private PortfolioRiskService portfolioRiskService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    void refreshRescoresOnlyChangedCustomers() {
+        Long changedCustomer = createCustomerWithLoan();
+        Long unchangedCustomer = createCustomerWithLoan();
+
+        RiskRefreshReport full = portfolioRiskService.refresh(true);
+        assertTrue(full.isFullRecompute());
+        assertTrue(full.getCustomers() >= 2);
+        assertEquals(loanService.analyzeCustomerRisk(changedCustomer), portfolioRiskService.getRiskAnalysis(changedCustomer));
+        assertEquals(loanService.analyzeCustomerRisk(unchangedCustomer), portfolioRiskService.getRiskAnalysis(unchangedCustomer));
+
+        loanService.createLoan(loanRequest(changedCustomer));
+        assertEquals(1, portfolioRiskService.getRiskAnalysis(changedCustomer).getActiveLoans());
+
+        RiskRefreshReport incremental = portfolioRiskService.refresh(false);
+        assertFalse(incremental.isFullRecompute());
+        assertEquals(1, incremental.getCustomers());
+        RiskAnalysisDTO refreshed = portfolioRiskService.getRiskAnalysis(changedCustomer);
+        assertEquals(2, refreshed.getActiveLoans());
+        assertEquals(loanService.analyzeCustomerRisk(changedCustomer), refreshed);
+    }
+
+    private Long createCustomerWithLoan() {
+        Long customerId = new LoanFixtures(customerService, loanService).createCustomer("50000");
+        loanService.createLoan(loanRequest(customerId));
+        return customerId;
+    }
+
+    private CreateLoanRequest loanRequest(Long customerId) {
+        return LoanFixtures.loanRequest(customerId, "10000", 12);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.loanapp.service;
+
+import com.example.loanapp.model.Customer;
+import com.example.loanapp.model.Loan;
+import com.example.loanapp.model.LoanInstallment;
+import com.example.loanapp.repository.LoanRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+    private static final String LOAN_REGION = Loan.class.getName();
+    private static final String INSTALLMENTS_REGION = Loan.class.getName() + ".installments";
+    private static final String INSTALLMENT_REGION = LoanInstallment.class.getName();
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ThreadPoolTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private LoanFixtures fixtures;
+    private Long customerId;
+    private Long loanId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        fixtures = new LoanFixtures(customerService, loanService);
+        customerId = fixtures.createCustomer("50000");
+        loanId = fixtures.createLoan(customerId, "12000", 12);
+        LoanFixtures.awaitAsyncTasks(applicationTaskExecutor);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void warmLoanIsReadWithoutStatements() {
+        readLoan();
+
+        statistics.clear();
+        List<LoanInstallment> installments = readLoan();
+
+        assertEquals(12, installments.size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, region(LOAN_REGION).getHitCount());
+        assertEquals(1, region(INSTALLMENTS_REGION).getHitCount());
+        assertEquals(12, region(INSTALLMENT_REGION).getHitCount());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", LOAN_REGION)
+                .tag("result", "hit")
+                .functionCounter().count() > 0);
+    }
+
+    @Test
+    void paymentUpdatesTheCachedLoan() {
+        readLoan();
+
+        fixtures.pay(loanId, "1200");
+        LoanFixtures.awaitAsyncTasks(applicationTaskExecutor);
+
+        statistics.clear();
+        List<LoanInstallment> installments = readLoan();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(installments.get(0).isPaid());
+        assertFalse(installments.get(1).isPaid());
+        Integer paidInstallmentCount = transactionTemplate.execute(status ->
+                loanRepository.findById(loanId).orElseThrow().getPaidInstallmentCount());
+        assertEquals(1, paidInstallmentCount);
+    }
+
+    @Test
+    void creditLimitChangeEvictsOnlyThatCustomer() {
+        Long otherCustomerId = fixtures.createCustomer("50000");
+        customerService.getCustomer(customerId);
+        customerService.getCustomer(otherCustomerId);
+
+        fixtures.createLoan(otherCustomerId, "5000", 6);
+
+        assertTrue(entityManagerFactory.getCache().contains(Customer.class, customerId));
+        assertEquals(0, new BigDecimal("5000")
+                .compareTo(customerService.getCustomer(otherCustomerId).getUsedCreditLimit()));
+    }
+
+    private List<LoanInstallment> readLoan() {
+        return transactionTemplate.execute(status -> {
+            Loan loan = loanRepository.findById(loanId).orElseThrow();
+            List<LoanInstallment> installments = loan.getInstallments().stream()
+                    .sorted(Comparator.comparing(LoanInstallment::getDueDate))
+                    .toList();
+            // Touch the installment state so every element is loaded
+            installments.forEach(LoanInstallment::isPaid);
+            return installments;
+        });
+    }
+
+    private CacheRegionStatistics region(String regionName) {
+        return statistics.getDomainDataRegionStatistics(regionName);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.loanapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MoneyMathTests {
+
+    private static final int SAMPLES = 200_000;
+    private static final int[] INSTALLMENTS = {6, 9, 12, 24};
+    private static final BigDecimal PER_DAY_RATE = new BigDecimal("0.001");
+
+    private final Random random = new Random(20240101L);
+
+    @Test
+    void adjustForPaymentDayMatchesBigDecimalDiscountAndPenalty() {
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal amount = randomAmount();
+            long days = random.nextInt(400) - 200;
+
+            BigDecimal expected;
+            if (days > 0) {
+                expected = amount.subtract(amount.multiply(PER_DAY_RATE).multiply(BigDecimal.valueOf(days)));
+            } else if (days < 0) {
+                expected = amount.add(amount.multiply(PER_DAY_RATE).multiply(BigDecimal.valueOf(Math.abs(days))));
+            } else {
+                expected = amount;
+            }
+
+            long actual = MoneyMath.adjustForPaymentDay(MoneyMath.toMinor(amount), days);
+            assertEquals(rounded(expected), MoneyMath.toDecimal(actual), () -> amount + " / " + days + " days");
+        }
+    }
+
+    @Test
+    void perDayChargeMatchesBigDecimal() {
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal amount = randomAmount();
+            long days = random.nextInt(1000);
+
+            BigDecimal expected = amount.multiply(PER_DAY_RATE).multiply(BigDecimal.valueOf(days));
+            assertEquals(rounded(expected), MoneyMath.toDecimal(MoneyMath.perDayCharge(MoneyMath.toMinor(amount), days)));
+        }
+    }
+
+    @Test
+    void flatInstallmentMatchesBigDecimalSplit() {
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal loanAmount = random.nextInt(10) == 0
+                    ? BigDecimal.valueOf(random.nextInt(100_000_000) + 1L, 3)
+                    : randomAmount();
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(1_000_000_000), random.nextInt(12) + 1);
+            int installments = INSTALLMENTS[random.nextInt(INSTALLMENTS.length)];
+
+            BigDecimal expected = loanAmount.multiply(BigDecimal.ONE.add(rate))
+                    .divide(BigDecimal.valueOf(installments), 2, RoundingMode.HALF_UP);
+            long actual = MoneyMath.flatInstallment(loanAmount, rate, installments);
+            assertEquals(expected, MoneyMath.toDecimal(actual), () -> loanAmount + " * " + rate + " / " + installments);
+        }
+    }
+
+    @Test
+    void shareMatchesBigDecimalDivide() {
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal amount = randomAmount();
+            int installments = INSTALLMENTS[random.nextInt(INSTALLMENTS.length)];
+
+            BigDecimal expected = amount.divide(BigDecimal.valueOf(installments), 2, RoundingMode.HALF_UP);
+            assertEquals(expected, MoneyMath.toDecimal(MoneyMath.share(MoneyMath.toMinor(amount), installments)));
+        }
+    }
+
+    @Test
+    void earlyClosureHalvingMatchesBigDecimal() {
+        BigDecimal half = new BigDecimal("0.5");
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal remainingDebt = randomAmount();
+            BigDecimal savedInterest = BigDecimal.valueOf(random.nextLong(remainingDebt.unscaledValue().longValue() + 1), 2);
+
+            BigDecimal discount = savedInterest.multiply(half);
+            BigDecimal finalAmount = remainingDebt.subtract(discount);
+
+            long remaining = MoneyMath.toMinor(remainingDebt);
+            long saved = MoneyMath.toMinor(savedInterest);
+            assertEquals(rounded(discount), MoneyMath.toDecimal(MoneyMath.half(saved)));
+            assertEquals(rounded(finalAmount), MoneyMath.toDecimal(MoneyMath.subtractHalf(remaining, saved)));
+        }
+    }
+
+    @Test
+    void divideHalfUpMatchesBigDecimalForAllSigns() {
+        for (int i = 0; i < SAMPLES; i++) {
+            long dividend = random.nextLong() >> random.nextInt(63);
+            long divisor = (random.nextLong() >> random.nextInt(63)) | 1;
+
+            BigDecimal expected = BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP);
+            assertEquals(expected.longValueExact(), MoneyMath.divideHalfUp(dividend, divisor), () -> dividend + " / " + divisor);
+        }
+        assertEquals(3, MoneyMath.divideHalfUp(5, 2));
+        assertEquals(-3, MoneyMath.divideHalfUp(-5, 2));
+        assertEquals(-3, MoneyMath.divideHalfUp(5, -2));
+        assertEquals(2, MoneyMath.divideHalfUp(7, 4));
+    }
+
+    private BigDecimal randomAmount() {
+        return BigDecimal.valueOf(random.nextLong(1_000_000_000_00L) + 1, 2);
+    }
+
+    private static BigDecimal rounded(BigDecimal value) {
+        return value.setScale(MoneyMath.SCALE, RoundingMode.HALF_UP);
+    }
+}